@@ -0,0 +1,58 @@
+package ru.learnup.javaqa.bench;
+
+import org.hamcrest.Matcher;
+import org.openjdk.jmh.annotations.*;
+import ru.learnup.javaqa.asserts.CommonAsserts;
+import ru.learnup.javaqa.dto.Category;
+import ru.learnup.javaqa.dto.Product;
+import ru.learnup.javaqa.enums.CategoryType;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.learnup.javaqa.asserts.IsCategoryExists.isCategoryExists;
+import static ru.learnup.javaqa.asserts.IsProductArray.isProductArray;
+
+//Кастомные матчеры и ассерты, которые выполняются на каждую проверку продукта или категории
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AssertsBenchmark {
+
+    @Param({"100", "10000"})
+    int size;
+
+    private final Matcher<String> categoryExists = isCategoryExists();
+    private final Matcher<List<Product>> productArray = isProductArray();
+
+    private Category category;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        category = Fixtures.category(size);
+        products = category.getProducts();
+    }
+
+    @Benchmark
+    public boolean categoryExistsHit() {
+        return categoryExists.matches(CategoryType.F_35.getName());
+    }
+
+    @Benchmark
+    public boolean categoryExistsMiss() {
+        return categoryExists.matches("No such category");
+    }
+
+    @Benchmark
+    public boolean productArray() {
+        return productArray.matches(products);
+    }
+
+    @Benchmark
+    public void assertCategoryEquals() {
+        CommonAsserts.assertCategoryEquals(CategoryType.FOOD, category);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.learnup.javaqa.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import ru.learnup.javaqa.dto.Category;
+import ru.learnup.javaqa.dto.DtoMapper;
+import ru.learnup.javaqa.dto.Product;
+import ru.learnup.javaqa.dto.ProductDouble;
+import ru.learnup.javaqa.dto.Products;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+//Круговая сериализация DTO общим маппером; fresh* - базовая линия, как у стандартного маппера RestAssured
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DtoSerializationBenchmark {
+
+    //Размер списков продуктов в Category и Products
+    @Param({"100", "10000"})
+    int size;
+
+    private final DtoMapper mapper = DtoMapper.INSTANCE;
+
+    private Product product;
+    private ProductDouble productDouble;
+    private Category category;
+    private Products products;
+
+    private byte[] productJson;
+    private byte[] categoryJson;
+    private byte[] productsJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        product = Fixtures.product(1);
+        productDouble = ProductDouble.builder()
+                .id("undefined")
+                .title(new String[]{"a", "b", "c"})
+                .price(3.01)
+                .categoryTitle("Food")
+                .build();
+        category = Fixtures.category(size);
+        products = Fixtures.products(size);
+
+        productJson = mapper.writer(Product.class).writeValueAsBytes(product);
+        categoryJson = mapper.writer(Category.class).writeValueAsBytes(category);
+        productsJson = mapper.writer(Products.class).writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public Product productRoundTrip() throws IOException {
+        byte[] json = mapper.writer(Product.class).writeValueAsBytes(product);
+        return mapper.reader(Product.class).readValue(json);
+    }
+
+    @Benchmark
+    public Product productRoundTripFreshMapper() throws IOException {
+        ObjectMapper fresh = new ObjectMapper().findAndRegisterModules();
+        return fresh.readValue(fresh.writeValueAsBytes(product), Product.class);
+    }
+
+    @Benchmark
+    public byte[] productDoubleSerialize() throws IOException {
+        return mapper.writer(ProductDouble.class).writeValueAsBytes(productDouble);
+    }
+
+    @Benchmark
+    public byte[] categorySerialize() throws IOException {
+        return mapper.writer(Category.class).writeValueAsBytes(category);
+    }
+
+    @Benchmark
+    public Category categoryDeserialize() throws IOException {
+        return mapper.reader(Category.class).readValue(categoryJson);
+    }
+
+    @Benchmark
+    public byte[] productsSerialize() throws IOException {
+        return mapper.writer(Products.class).writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public Products productsDeserialize() throws IOException {
+        return mapper.reader(Products.class).readValue(productsJson);
+    }
+
+    @Benchmark
+    public Product productDeserialize() throws IOException {
+        return mapper.reader(Product.class).readValue(productJson);
+    }
+}
@@ -0,0 +1,46 @@
+package ru.learnup.javaqa.bench;
+
+import lombok.experimental.UtilityClass;
+import ru.learnup.javaqa.dto.Category;
+import ru.learnup.javaqa.dto.Product;
+import ru.learnup.javaqa.dto.Products;
+import ru.learnup.javaqa.enums.CategoryType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Данные для бенчмарков: продукты одной категории с предсказуемыми полями
+@UtilityClass
+class Fixtures {
+
+    Product product(long id) {
+        return Product.builder()
+                .id(id)
+                .title("Product " + id)
+                .price((int) (id % 100_000) + 1)
+                .categoryTitle(CategoryType.FOOD.getName())
+                .build();
+    }
+
+    List<Product> productList(int size) {
+        List<Product> list = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            list.add(product(i));
+        }
+        return list;
+    }
+
+    Category category(int size) {
+        Category category = new Category();
+        category.setId(CategoryType.FOOD.getId());
+        category.setTitle(CategoryType.FOOD.getName());
+        category.setProducts(productList(size));
+        return category;
+    }
+
+    Products products(int size) {
+        Products products = new Products();
+        products.setProducts(productList(size));
+        return products;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.learnup.javaqa.bench;
+
+import org.openjdk.jmh.annotations.*;
+import ru.learnup.javaqa.generators.Alphabet;
+import ru.learnup.javaqa.generators.RandomData;
+
+import java.util.concurrent.TimeUnit;
+
+//Генерация строк тестовых данных: прежний подбор через Math.random() против таблиц RandomData.
+//Запуск с несколькими потоками показывает конкуренцию за общий Random: -Djmh.args="RandomData -f 1 -t 4"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RandomDataBenchmark {
+
+    @Param({"10", "1000"})
+    int length;
+
+    @Benchmark
+    public String latinMathRandom() {
+        char[] charArr = new char[length];
+        for (int i = 0; i < charArr.length; i++) {
+            char ch = (char) (Math.random() * (122 - 65 + 1) + 65);
+            if (ch >= 90 && ch <= 97) {
+                i -= 1;
+                continue;
+            }
+            charArr[i] = ch;
+        }
+        return new String(charArr);
+    }
+
+    @Benchmark
+    public String latinRandomData() {
+        return RandomData.string(Alphabet.LATIN, length);
+    }
+
+    @Benchmark
+    public String cyrillicRandomData() {
+        return RandomData.string(Alphabet.CYRILLIC, length);
+    }
+}
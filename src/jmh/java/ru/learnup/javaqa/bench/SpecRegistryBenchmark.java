@@ -0,0 +1,63 @@
+package ru.learnup.javaqa.bench;
+
+import com.github.javafaker.Faker;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+import org.openjdk.jmh.annotations.*;
+import ru.learnup.javaqa.api.ResponseSpecs;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.containsStringIgnoringCase;
+
+//Подготовка одного запроса: прежний setUp (новый спек ответа и новый Faker в каждом экземпляре класса)
+//против спеков из ResponseSpecs и Faker на поток. Спек ответа в обоих случаях сливается в спек запроса,
+//как в ProductApi.create: given().spec(request).response().spec(...)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SpecRegistryBenchmark {
+
+    private final ThreadLocal<Faker> fakers = ThreadLocal.withInitial(Faker::new);
+    private final RequestSpecification request = new RequestSpecBuilder()
+            .setBaseUri("http://localhost:8189/market/api/v1")
+            .setContentType(ContentType.JSON)
+            .build();
+
+    @Benchmark
+    public ResponseSpecification buildResponseSpec() {
+        return RestAssured.given()
+                .spec(request)
+                .response()
+                .spec(new ResponseSpecBuilder()
+                        .expectContentType(ContentType.JSON)
+                        .expectStatusLine(containsStringIgnoringCase("HTTP/1.1"))
+                        .expectStatusCode(201)
+                        .build());
+    }
+
+    @Benchmark
+    public ResponseSpecification sharedResponseSpec() {
+        return RestAssured.given()
+                .spec(request)
+                .response()
+                .spec(ResponseSpecs.HTTP_1_1)
+                .spec(ResponseSpecs.CREATED_JSON);
+    }
+
+    @Benchmark
+    public String newFaker() {
+        return new Faker().food().ingredient();
+    }
+
+    @Benchmark
+    public String threadLocalFaker() {
+        return fakers.get().food().ingredient();
+    }
+}
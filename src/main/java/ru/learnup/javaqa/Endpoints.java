@@ -1,6 +1,7 @@
 package ru.learnup.javaqa;
 
 public class Endpoints {
+    public static final String CATEGORY_ENDPOINT = "categories";
     public static final String CATEGORY_ID_ENDPOINT = "categories/{id}";
     public static final String PRODUCT_ENDPOINT = "/products";
     public static final String PRODUCT_ID_ENDPOINT = "/products/{id}";
@@ -0,0 +1,53 @@
+package ru.learnup.javaqa.api;
+
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+import ru.learnup.javaqa.dto.Category;
+
+import static ru.learnup.javaqa.Endpoints.CATEGORY_ENDPOINT;
+import static ru.learnup.javaqa.Endpoints.CATEGORY_ID_ENDPOINT;
+
+//Клиент контроллера категорий, устроен так же, как ProductApi
+public class CategoryApi {
+
+    private final RequestSpecification request;
+    private final ResponseSpecification response;
+
+    public CategoryApi(RequestSpecification request) {
+        this(request, null);
+    }
+
+    public CategoryApi(RequestSpecification request, ResponseSpecification response) {
+        this.request = request;
+        this.response = response;
+    }
+
+    public Response get(Object id) {
+        return given()
+                .when()
+                .get(CATEGORY_ID_ENDPOINT, id);
+    }
+
+    public Category find(Object id) {
+        return given()
+                .response()
+                .spec(ResponseSpecs.OK_JSON)
+                .when()
+                .get(CATEGORY_ID_ENDPOINT, id)
+                .as(Category.class);
+    }
+
+    //Корень контроллера без идентификатора
+    public Response getRoot() {
+        return given()
+                .when()
+                .get(CATEGORY_ENDPOINT);
+    }
+
+    private RequestSpecification given() {
+        RequestSpecification given = RestAssured.given().spec(request);
+        return response == null ? given : given.response().spec(response).request();
+    }
+}
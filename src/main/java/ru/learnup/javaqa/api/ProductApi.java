@@ -0,0 +1,130 @@
+package ru.learnup.javaqa.api;
+
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.response.ValidatableResponse;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+import ru.learnup.javaqa.dto.Product;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static ru.learnup.javaqa.Endpoints.PRODUCT_ENDPOINT;
+import static ru.learnup.javaqa.Endpoints.PRODUCT_ID_ENDPOINT;
+
+//Клиент контроллера продуктов поверх спеков, собранных один раз (ожидания ответов - в ResponseSpecs),
+//поэтому один экземпляр обслуживает параллельные тесты, фоновые очереди и нагрузку.
+//Методы по HTTP-глаголам возвращают ответ как есть; create/update/find проверяют успешный статус и возвращают DTO.
+//Шагов Allure здесь нет: запросы из фоновых потоков выполняются вне теста, а в тестах шаг на каждый
+//запрос добавляет AllureExchangeFilter.
+public class ProductApi {
+
+    private final RequestSpecification request;
+    private final ResponseSpecification response;
+
+    public ProductApi(RequestSpecification request) {
+        this(request, null);
+    }
+
+    //response - общие для всех ответов ожидания (например, строка статуса), может быть null
+    public ProductApi(RequestSpecification request, ResponseSpecification response) {
+        this.request = request;
+        this.response = response;
+    }
+
+    public Response post(Object body) {
+        return given()
+                .body(body)
+                .contentType(ContentType.JSON)
+                .when()
+                .post(PRODUCT_ENDPOINT);
+    }
+
+    public Product create(Object product) {
+        return given()
+                .body(product)
+                .contentType(ContentType.JSON)
+                .response()
+                .spec(ResponseSpecs.CREATED_JSON)
+                .when()
+                .post(PRODUCT_ENDPOINT)
+                .as(Product.class);
+    }
+
+    public Response put(Object body) {
+        return given()
+                .body(body)
+                .contentType(ContentType.JSON)
+                .when()
+                .put(PRODUCT_ENDPOINT);
+    }
+
+    public Product update(Object product) {
+        return given()
+                .body(product)
+                .contentType(ContentType.JSON)
+                .response()
+                .spec(ResponseSpecs.OK_JSON)
+                .when()
+                .put(PRODUCT_ENDPOINT)
+                .as(Product.class);
+    }
+
+    public Response get(Object id) {
+        return given()
+                .when()
+                .get(PRODUCT_ID_ENDPOINT, id);
+    }
+
+    public Product find(Object id) {
+        return given()
+                .response()
+                .spec(ResponseSpecs.OK_JSON)
+                .when()
+                .get(PRODUCT_ID_ENDPOINT, id)
+                .as(Product.class);
+    }
+
+    public Response getAll() {
+        return given()
+                .when()
+                .get(PRODUCT_ENDPOINT);
+    }
+
+    //Тело списка без загрузки в память, для спека без буферизации ответов; поток нужно дочитать и закрыть.
+    //Ожидания проверяются после получения ответа: при ошибке тело закрывается здесь, иначе соединение
+    //пула без буферизации так и осталось бы занятым
+    public InputStream streamAll() {
+        Response res = RestAssured.given()
+                .spec(request)
+                .when()
+                .get(PRODUCT_ENDPOINT);
+        try {
+            ValidatableResponse validatable = res.then().spec(ResponseSpecs.OK_JSON);
+            if (response != null) {
+                validatable.spec(response);
+            }
+        } catch (RuntimeException | AssertionError e) {
+            try {
+                res.asInputStream().close();
+            } catch (IOException | RuntimeException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw e;
+        }
+        return res.asInputStream();
+    }
+
+    public Response delete(Object id) {
+        return given()
+                .when()
+                .delete(PRODUCT_ID_ENDPOINT, id);
+    }
+
+    private RequestSpecification given() {
+        RequestSpecification given = RestAssured.given().spec(request);
+        return response == null ? given : given.response().spec(response).request();
+    }
+}
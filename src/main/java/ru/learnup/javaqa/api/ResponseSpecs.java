@@ -0,0 +1,31 @@
+package ru.learnup.javaqa.api;
+
+import io.restassured.builder.ResponseSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.ResponseSpecification;
+import lombok.experimental.UtilityClass;
+
+import static org.hamcrest.CoreMatchers.containsStringIgnoringCase;
+
+//Все ожидания ответов собираются один раз на JVM при загрузке класса. Собранный спек только читается:
+//RestAssured сливает его в спек конкретного запроса, поэтому одни и те же экземпляры безопасно
+//используются параллельными тестами и фоновыми потоками. Новые спеки добавляются сюда, а не в тесты.
+@UtilityClass
+public class ResponseSpecs {
+
+    //Общее ожидание для всех ответов стенда
+    public final ResponseSpecification HTTP_1_1 = new ResponseSpecBuilder()
+            .expectStatusLine(containsStringIgnoringCase("HTTP/1.1"))
+            .build();
+
+    public final ResponseSpecification OK_JSON = json(200);
+
+    public final ResponseSpecification CREATED_JSON = json(201);
+
+    private ResponseSpecification json(int status) {
+        return new ResponseSpecBuilder()
+                .expectContentType(ContentType.JSON)
+                .expectStatusCode(status)
+                .build();
+    }
+}
@@ -3,11 +3,16 @@ package ru.learnup.javaqa.asserts;
 import io.qameta.allure.Step;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import ru.learnup.javaqa.catalog.CategoryCatalog;
+import ru.learnup.javaqa.client.ApiResponse;
 import ru.learnup.javaqa.dto.Category;
 import ru.learnup.javaqa.dto.Product;
 import lombok.experimental.UtilityClass;
+import org.hamcrest.Matcher;
 import ru.learnup.javaqa.enums.CategoryType;
 
+import java.io.InputStream;
+
 import static org.hamcrest.Matchers.notNullValue;
 import static ru.learnup.javaqa.asserts.IsCategoryExists.isCategoryExists;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -30,10 +35,29 @@ public class CommonAsserts {
 
     @Step("Убедиться, что категория из ответа совпадает с категорией из запроса")
     public void assertCategoryEquals(CategoryType expected, Category actual) {
-        assertThat(actual.getId(), equalTo(expected.getId()));
+        //Ожидаемое имя - из перечисления: имя со стенда сравнивалось бы само с собой
+        assertThat("id of category '" + actual.getTitle() + "', expected '" + expected.getName() + "'",
+                actual.getId(), equalTo(expected.getId()));
         assertThat(actual.getTitle(), equalTo(expected.getName()));
         assertThat(actual.getProducts(), isProductArray());
-        actual.getProducts().forEach(p -> assertThat(p.getCategoryTitle(), equalTo(expected.getName())));
+        //Один матчер на все продукты категории; категория продукта сверяется по идентификатору,
+        //сообщение с именами категорий строится только при несовпадении
+        Matcher<Long> sameCategory = equalTo(expected.getId());
+        actual.getProducts().forEach(p -> {
+            Long id = CategoryCatalog.idOf(p.getCategoryTitle());
+            if (!sameCategory.matches(id)) {
+                assertThat("category of product '" + p.getTitle() + "' is '" + p.getCategoryTitle()
+                        + "', expected '" + expected.getName() + "'", id, sameCategory);
+            }
+        });
+    }
+
+    //Потоковая проверка всех продуктов ответа без построения списка; в сообщении - первые нарушения
+    @Step("Убедиться, что все продукты из ответа корректны")
+    public ProductStreamReport assertProductStream(InputStream body) {
+        ProductStreamReport report = new ProductStreamValidator().validate(body);
+        assertThat(report.toString(), report.getViolations(), equalTo(0L));
+        return report;
     }
 
     //Проверка на статус 404 после получения запроса
@@ -50,6 +74,19 @@ public class CommonAsserts {
         assertThat(res.contentType(), equalTo(ContentType.JSON.toString()));
     }
 
+    //Те же проверки для ответа MarketClient
+    @Step("Убедиться, что ответ на запрос - 404 Not Found")
+    public void assertNotFound(ApiResponse res) {
+        assertThat(res.getStatusCode(), equalTo(404));
+        assertThat(res.getContentType(), equalTo(ContentType.JSON.toString()));
+    }
+
+    @Step("Убедиться, что ответ на запрос - 400 Bad Request")
+    public void assertBadRequest(ApiResponse res) {
+        assertThat(res.getStatusCode(), equalTo(400));
+        assertThat(res.getContentType(), equalTo(ContentType.JSON.toString()));
+    }
+
     @Step("Убедиться, что ответ на запрос - 404 Not Found")
     public void assertProductNotFound(Product p, Response res) {
         //Для правильного отслеживания ид в случае успешного запроса
@@ -73,4 +110,4 @@ public class CommonAsserts {
 
         assertBadRequest(res);
     }
-}
\ No newline at end of file
+}
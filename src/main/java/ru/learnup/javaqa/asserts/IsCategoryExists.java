@@ -4,10 +4,7 @@ import lombok.NoArgsConstructor;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeMatcher;
-import ru.learnup.javaqa.enums.CategoryType;
-
-import java.util.Arrays;
-import java.util.Objects;
+import ru.learnup.javaqa.catalog.CategoryCatalog;
 
 @NoArgsConstructor
 public class IsCategoryExists extends TypeSafeMatcher<String> {
@@ -18,14 +15,8 @@ public class IsCategoryExists extends TypeSafeMatcher<String> {
 
     @Override
     protected boolean matchesSafely(String actual) {
-        try {
-            //Пофиксил поиск нумерованного списка: теперь ищет по полю с именем, а не идентификатору
-            return Arrays.stream(CategoryType.values())
-                    .anyMatch(p -> Objects.equals(p.getName(), actual));
-        }
-        catch (IllegalArgumentException e) {
-            return false;
-        }
+        //Категории стенда из CategoryCatalog; до его загрузки - индекс CategoryType
+        return CategoryCatalog.exists(actual);
     }
 
     @Override
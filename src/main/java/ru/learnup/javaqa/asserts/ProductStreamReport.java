@@ -0,0 +1,54 @@
+package ru.learnup.javaqa.asserts;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+//Итог потоковой проверки: число продуктов, число нарушений и тексты первых maxReported из них
+@Getter
+public class ProductStreamReport {
+
+    private final int maxReported;
+    private final List<String> firstViolations = new ArrayList<>();
+    private long count;
+    private long violations;
+
+    ProductStreamReport(int maxReported) {
+        this.maxReported = maxReported;
+    }
+
+    void product() {
+        count++;
+    }
+
+    void violation(String message) {
+        violations++;
+        if (firstViolations.size() < maxReported) {
+            firstViolations.add(message);
+        }
+    }
+
+    public List<String> getFirstViolations() {
+        return Collections.unmodifiableList(firstViolations);
+    }
+
+    public boolean isValid() {
+        return violations == 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder()
+                .append("products=").append(count)
+                .append(" violations=").append(violations);
+        for (String v : firstViolations) {
+            sb.append('\n').append("  ").append(v);
+        }
+        if (violations > firstViolations.size()) {
+            sb.append('\n').append("  ... and ").append(violations - firstViolations.size()).append(" more");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,120 @@
+package ru.learnup.javaqa.asserts;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.SneakyThrows;
+import ru.learnup.javaqa.catalog.CategoryCatalog;
+import ru.learnup.javaqa.dto.DtoMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+//Потоковая проверка ответа GET /products вида {"products": [...]} без построения List<Product>.
+//Продукты разбираются по одному токенами Jackson: в памяти только текущий продукт и первые maxReported нарушений,
+//поэтому размер каталога на расход памяти не влияет.
+public class ProductStreamValidator {
+
+    public static final int DEFAULT_MAX_REPORTED = 10;
+
+    private static final JsonFactory FACTORY = DtoMapper.INSTANCE.mapper().getFactory();
+
+    private final int maxReported;
+
+    public ProductStreamValidator() {
+        this(DEFAULT_MAX_REPORTED);
+    }
+
+    public ProductStreamValidator(int maxReported) {
+        this.maxReported = maxReported;
+    }
+
+    //Поток читается до конца и закрывается
+    @SneakyThrows(IOException.class)
+    public ProductStreamReport validate(InputStream body) {
+        ProductStreamReport report = new ProductStreamReport(maxReported);
+        try (JsonParser parser = FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                report.violation("response body is not a JSON object");
+                return report;
+            }
+            boolean found = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("products".equals(field) && value == JsonToken.START_ARRAY) {
+                    found = true;
+                    readProducts(parser, report);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (!found) {
+                report.violation("no \"products\" array in response body");
+            }
+        }
+        return report;
+    }
+
+    private void readProducts(JsonParser parser, ProductStreamReport report) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            long index = report.getCount();
+            report.product();
+            if (token != JsonToken.START_OBJECT) {
+                report.violation("product #" + index + ": not a JSON object");
+                parser.skipChildren();
+                continue;
+            }
+            readProduct(parser, report, index);
+        }
+    }
+
+    private void readProduct(JsonParser parser, ProductStreamReport report, long index) throws IOException {
+        Long id = null;
+        boolean priceSeen = false;
+        boolean priceValid = false;
+        String price = null;
+        String category = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id":
+                    if (value == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                        id = parser.getLongValue();
+                    }
+                    break;
+                case "price":
+                    priceSeen = value != JsonToken.VALUE_NULL;
+                    priceValid = value == JsonToken.VALUE_NUMBER_INT
+                            && parser.getNumberType() == JsonParser.NumberType.INT && parser.getIntValue() > 0;
+                    if (priceSeen && !priceValid) {
+                        price = parser.getText();
+                    }
+                    break;
+                case "categoryTitle":
+                    category = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        if (id == null || id <= 0) {
+            report.violation(where(index, id) + ": id is missing or not a positive long");
+        }
+        if (!priceSeen) {
+            report.violation(where(index, id) + ": price is missing");
+        } else if (!priceValid) {
+            report.violation(where(index, id) + ": price " + price + " is not a positive int");
+        }
+        if (!CategoryCatalog.exists(category)) {
+            report.violation(where(index, id) + ": category \"" + category + "\" doesn't exist");
+        }
+    }
+
+    private static String where(long index, Long id) {
+        return "product #" + index + (id == null ? "" : " (id=" + id + ")");
+    }
+}
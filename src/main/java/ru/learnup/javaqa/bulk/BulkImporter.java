@@ -0,0 +1,133 @@
+package ru.learnup.javaqa.bulk;
+
+import lombok.Builder;
+import ru.learnup.javaqa.client.ApiResponse;
+import ru.learnup.javaqa.client.MarketClient;
+import ru.learnup.javaqa.dto.Product;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+//Массовое создание продуктов из файла (CSV или NDJSON, см. ProductFileReader) через MarketClient.
+//Файл читается по строке; не больше maxInFlight POST одновременно - чтение ждет свободного места,
+//поэтому память не зависит от размера файла. 429, 5xx и ошибки соединения повторяются до maxAttempts раз
+//с растущей паузой, место в окне при этом остается занятым. POST без ответа (таймаут, обрыв после отправки)
+//не повторяется: продукт мог быть создан, и повтор дал бы дубль - такие строки в отчете unconfirmed.
+//Идентификаторы созданных продуктов - по одному в строке в output (например, для последующего удаления);
+//созданный продукт, чей идентификатор не записан, в отчете unrecorded.
+public class BulkImporter {
+
+    private static final int MAX_REPORTED = 10;
+
+    private final MarketClient client;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final Path output;
+
+    @Builder
+    public BulkImporter(MarketClient client, int maxInFlight, int maxAttempts, long retryDelayMillis, Path output) {
+        this.client = client;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelayMillis = retryDelayMillis;
+        this.output = output;
+    }
+
+    public ImportReport run(Path input) throws IOException, InterruptedException {
+        ImportReport report = new ImportReport(MAX_REPORTED);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long start = System.nanoTime();
+
+        if (output.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+        }
+        try (ProductFileReader reader = ProductFileReader.open(input);
+             Writer ids = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            while (true) {
+                Product product;
+                try {
+                    product = reader.next();
+                } catch (IllegalArgumentException e) {
+                    report.failed(e.getMessage());
+                    continue;
+                }
+                if (product == null) {
+                    break;
+                }
+                report.read();
+                inFlight.acquire();
+                submit(product, reader.getLineNumber(), 1, report, ids, inFlight);
+            }
+            //Дождаться всех ответов, включая повторы
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
+        report.finish(System.nanoTime() - start);
+        return report;
+    }
+
+    private void submit(Product product, long line, int attempt, ImportReport report, Writer ids, Semaphore inFlight) {
+        CompletableFuture<ApiResponse> posted;
+        try {
+            posted = client.createProduct(product);
+        } catch (RuntimeException e) {
+            posted = CompletableFuture.failedFuture(e);
+        }
+        posted.whenComplete((res, e) -> {
+            try {
+                int status = res == null ? 0 : res.getStatusCode();
+                if (status == 201) {
+                    try {
+                        write(ids, res.as(Product.class).getId());
+                        report.created();
+                    } catch (Exception ex) {
+                        //Продукт на стенде есть, но в output его нет
+                        report.unrecorded("line " + line + ": created, id not recorded: " + ex);
+                    }
+                    inFlight.release();
+                } else if ((status == 429 || status >= 500 || status == 0 && notSent(e)) && attempt < maxAttempts) {
+                    report.retry();
+                    CompletableFuture.runAsync(() -> submit(product, line, attempt + 1, report, ids, inFlight),
+                            CompletableFuture.delayedExecutor(retryDelayMillis * attempt, TimeUnit.MILLISECONDS));
+                } else if (status == 0 && !notSent(e)) {
+                    report.unconfirmed("line " + line + ": no response, product may have been created: " + e);
+                    inFlight.release();
+                } else {
+                    report.failed("line " + line + ": " + (res == null ? String.valueOf(e) : "POST returned " + res));
+                    inFlight.release();
+                }
+            } catch (RuntimeException ex) {
+                report.failed("line " + line + ": " + ex);
+                inFlight.release();
+            }
+        });
+    }
+
+    //Соединение не установлено - запрос до стенда не дошел, повтор безопасен
+    private static boolean notSent(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException;
+    }
+
+    private static void write(Writer ids, Long id) {
+        synchronized (ids) {
+            try {
+                ids.write(String.valueOf(id));
+                ids.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
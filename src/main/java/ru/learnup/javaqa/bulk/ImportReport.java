@@ -0,0 +1,116 @@
+package ru.learnup.javaqa.bulk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+//Итог импорта: прочитано, создано, не создано, без ответа (unconfirmed - продукт мог быть создан),
+//создано без записанного идентификатора (unrecorded), повторы, скорость; тексты первых maxReported проблем
+public class ImportReport {
+
+    private final int maxReported;
+    private final List<String> firstFailures = new ArrayList<>();
+    private final LongAdder read = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder unconfirmed = new LongAdder();
+    private final LongAdder unrecorded = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private volatile long elapsedNanos;
+
+    ImportReport(int maxReported) {
+        this.maxReported = maxReported;
+    }
+
+    void read() {
+        read.increment();
+    }
+
+    void created() {
+        created.increment();
+    }
+
+    void retry() {
+        retries.increment();
+    }
+
+    void failed(String message) {
+        failed.increment();
+        report(message);
+    }
+
+    void unconfirmed(String message) {
+        unconfirmed.increment();
+        report(message);
+    }
+
+    void unrecorded(String message) {
+        unrecorded.increment();
+        report(message);
+    }
+
+    private void report(String message) {
+        synchronized (firstFailures) {
+            if (firstFailures.size() < maxReported) {
+                firstFailures.add(message);
+            }
+        }
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRead() {
+        return read.sum();
+    }
+
+    public long getCreated() {
+        return created.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getUnconfirmed() {
+        return unconfirmed.sum();
+    }
+
+    public long getUnrecorded() {
+        return unrecorded.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public List<String> getFirstFailures() {
+        synchronized (firstFailures) {
+            return Collections.unmodifiableList(new ArrayList<>(firstFailures));
+        }
+    }
+
+    //Созданных продуктов в секунду
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getCreated() * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(String.format(
+                "read=%d created=%d failed=%d unconfirmed=%d unrecorded=%d retries=%d elapsed=%.1f s throughput=%.0f/s",
+                getRead(), getCreated(), getFailed(), getUnconfirmed(), getUnrecorded(), getRetries(),
+                elapsedNanos / 1e9, getThroughput()));
+        List<String> failures = getFirstFailures();
+        for (String f : failures) {
+            sb.append('\n').append("  ").append(f);
+        }
+        long problems = getFailed() + getUnconfirmed() + getUnrecorded();
+        if (problems > failures.size()) {
+            sb.append('\n').append("  ... and ").append(problems - failures.size()).append(" more");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,164 @@
+package ru.learnup.javaqa.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import ru.learnup.javaqa.dto.DtoMapper;
+import ru.learnup.javaqa.dto.Product;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+//Построчное чтение продуктов из файла без загрузки его целиком в память.
+//Формат - по расширению: .csv (первая строка - заголовок с колонками title, price, categoryTitle;
+//значения в кавычках могут содержать запятые, но не переводы строк) или .ndjson/.jsonl (один Product в строке).
+//Некорректная строка - IllegalArgumentException с номером строки, чтение можно продолжать следующим next().
+public class ProductFileReader implements Closeable {
+
+    private static final ObjectReader PRODUCT = DtoMapper.INSTANCE.reader(Product.class);
+
+    private final BufferedReader in;
+    private final boolean csv;
+    private int titleColumn = -1;
+    private int priceColumn = -1;
+    private int categoryColumn = -1;
+    private long lineNumber;
+
+    private ProductFileReader(BufferedReader in, boolean csv) {
+        this.in = in;
+        this.csv = csv;
+    }
+
+    public static ProductFileReader open(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean csv = name.endsWith(".csv");
+        if (!csv && !name.endsWith(".ndjson") && !name.endsWith(".jsonl")) {
+            throw new IllegalArgumentException("Unsupported product file (expected .csv, .ndjson or .jsonl): " + file);
+        }
+        ProductFileReader reader = new ProductFileReader(Files.newBufferedReader(file, StandardCharsets.UTF_8), csv);
+        if (csv) {
+            try {
+                reader.readHeader();
+            } catch (IOException | RuntimeException e) {
+                reader.close();
+                throw e;
+            }
+        }
+        return reader;
+    }
+
+    //Следующий продукт или null в конце файла; пустые строки пропускаются
+    public Product next() throws IOException {
+        String line;
+        do {
+            line = in.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+        try {
+            return csv ? fromCsv(line) : fromJson(line);
+        } catch (JsonProcessingException | RuntimeException e) {
+            throw new IllegalArgumentException("line " + lineNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    private void readHeader() throws IOException {
+        String header = in.readLine();
+        lineNumber++;
+        if (header == null) {
+            throw new IllegalArgumentException("Empty CSV file");
+        }
+        //BOM, который добавляют табличные редакторы
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        List<String> columns = split(header);
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).trim()) {
+                case "title":
+                    titleColumn = i;
+                    break;
+                case "price":
+                    priceColumn = i;
+                    break;
+                case "categoryTitle":
+                    categoryColumn = i;
+                    break;
+                default:
+                    //Прочие колонки (например, id) не отправляются
+            }
+        }
+        if (titleColumn < 0 || priceColumn < 0 || categoryColumn < 0) {
+            throw new IllegalArgumentException("CSV header must contain title, price and categoryTitle: " + header);
+        }
+    }
+
+    private Product fromCsv(String line) {
+        List<String> values = split(line);
+        int columns = Math.max(titleColumn, Math.max(priceColumn, categoryColumn)) + 1;
+        if (values.size() < columns) {
+            throw new IllegalArgumentException("expected at least " + columns + " columns, got " + values.size());
+        }
+        return Product.builder()
+                .title(values.get(titleColumn))
+                .price(Integer.valueOf(values.get(priceColumn).trim()))
+                .categoryTitle(values.get(categoryColumn))
+                .build();
+    }
+
+    private static Product fromJson(String line) throws JsonProcessingException {
+        Product p = PRODUCT.readValue(line);
+        //Идентификатор назначает сервер
+        p.setId(null);
+        return p;
+    }
+
+    //Разбор строки CSV: "" внутри кавычек - сама кавычка
+    static List<String> split(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted value");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
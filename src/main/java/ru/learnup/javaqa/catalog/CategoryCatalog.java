@@ -0,0 +1,187 @@
+package ru.learnup.javaqa.catalog;
+
+import lombok.Builder;
+import ru.learnup.javaqa.client.ApiResponse;
+import ru.learnup.javaqa.client.MarketClient;
+import ru.learnup.javaqa.dto.Category;
+import ru.learnup.javaqa.enums.CategoryType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+//Каталог категорий, загруженный со стенда: на сервере категории могут отличаться от перечисления CategoryType.
+//Отдельного списка категорий в API нет, поэтому загружаются известные идентификаторы (ids) одновременными
+//GET categories/{id}: 200 - категория есть, 404 - нет. Снимок неизменяемый и подменяется целиком;
+//фоновое обновление раз в refreshInterval, снимок старше ttl перезагружается при чтении.
+//Если стенд недоступен, используется прежний снимок, а до первой загрузки - CategoryType.
+//Каталог отвечает только на вопросы "есть ли категория" и "какой у нее идентификатор"; ожидаемые имена в проверках
+//берутся из CategoryType, иначе ответ стенда сверялся бы сам с собой.
+public class CategoryCatalog implements AutoCloseable {
+
+    private static volatile CategoryCatalog installed;
+
+    private final MarketClient client;
+    private final List<Long> ids;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final ScheduledExecutorService refresher;
+
+    private volatile Snapshot snapshot;
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder failedLoads = new LongAdder();
+    private volatile String lastError;
+
+    @Builder
+    public CategoryCatalog(MarketClient client, Collection<Long> ids, Duration ttl, Duration refreshInterval, int maxSize) {
+        this.client = client;
+        this.ids = new ArrayList<>(new TreeSet<>(ids));
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize > 0 ? maxSize : Integer.MAX_VALUE;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "category-catalog");
+            t.setDaemon(true);
+            return t;
+        });
+        reload();
+        long period = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::reload, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    //Каталог, которым пользуются IsCategoryExists и CommonAsserts
+    public static void install(CategoryCatalog catalog) {
+        installed = catalog;
+    }
+
+    //Есть ли на стенде категория с таким именем
+    public static boolean exists(String name) {
+        return idOf(name) != null;
+    }
+
+    //Идентификатор категории по имени; null, если такой категории нет
+    public static Long idOf(String name) {
+        Snapshot s = current();
+        if (s == null) {
+            CategoryType type = CategoryType.fromName(name);
+            //NOT_AVAILABLE - заведомо отсутствующая на стенде категория: без каталога ответ тот же, что и с ним
+            return type == null || type == CategoryType.NOT_AVAILABLE ? null : type.getId();
+        }
+        return name == null ? null : s.byName.get(name);
+    }
+
+    private static Snapshot current() {
+        CategoryCatalog catalog = installed;
+        return catalog == null ? null : catalog.snapshot();
+    }
+
+    public Map<Long, String> categories() {
+        Snapshot s = snapshot();
+        return s == null ? Map.of() : s.byId;
+    }
+
+    public Long idOfIgnoreCase(String name) {
+        Snapshot s = snapshot();
+        return s == null || name == null ? null : s.byNameIgnoreCase.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    //Причина последней неудачной загрузки; null - последняя загрузка прошла
+    public String getLastError() {
+        return lastError;
+    }
+
+    public String summary() {
+        Snapshot s = snapshot;
+        return String.format("categories=%d loads=%d failed=%d age=%d s%s%n",
+                s == null ? 0 : s.byId.size(), loads.sum(), failedLoads.sum(),
+                s == null ? -1 : TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - s.loadedAt),
+                lastError == null ? "" : " last error: " + lastError);
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+        if (installed == this) {
+            installed = null;
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot s = snapshot;
+        if (s != null && System.nanoTime() - s.loadedAt > ttlNanos) {
+            //Фоновое обновление не успело или падает: одна синхронная попытка на всех читателей
+            synchronized (this) {
+                if (snapshot == s) {
+                    reload();
+                }
+            }
+            s = snapshot;
+        }
+        return s;
+    }
+
+    //Новый снимок подменяет старый только при полной загрузке: частичный ответ не должен "удалять" категории
+    private synchronized void reload() {
+        loads.increment();
+        try {
+            List<CompletableFuture<ApiResponse>> responses = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                responses.add(client.getCategory(id));
+            }
+            Map<Long, String> byId = new HashMap<>();
+            for (int i = 0; i < ids.size(); i++) {
+                ApiResponse res = responses.get(i).join();
+                if (res.getStatusCode() == 200) {
+                    String title = res.as(Category.class).getTitle();
+                    if (title != null) {
+                        byId.put(ids.get(i), title);
+                    }
+                } else if (res.getStatusCode() != 404) {
+                    throw new IllegalStateException("GET category " + ids.get(i) + " returned " + res);
+                }
+            }
+            //Обрезанный каталог считал бы лишние категории несуществующими: такая загрузка - ошибка
+            if (byId.size() > maxSize) {
+                throw new IllegalStateException("Stand has " + byId.size() + " categories, catalog.maxSize is " + maxSize);
+            }
+            snapshot = new Snapshot(byId);
+            lastError = null;
+        } catch (RuntimeException e) {
+            failedLoads.increment();
+            lastError = e.getMessage();
+            //Прежний снимок остается, но помечается свежим, чтобы читатели не перезагружали его на каждом вызове
+            Snapshot s = snapshot;
+            if (s != null) {
+                snapshot = new Snapshot(s.byId);
+            }
+        }
+    }
+
+    private static class Snapshot {
+        final Map<Long, String> byId;
+        final Map<String, Long> byName;
+        final Map<String, Long> byNameIgnoreCase;
+        final long loadedAt = System.nanoTime();
+
+        Snapshot(Map<Long, String> byId) {
+            this.byId = Map.copyOf(byId);
+            Map<String, Long> byName = new HashMap<>();
+            Map<String, Long> byNameIgnoreCase = new HashMap<>();
+            byId.forEach((id, name) -> {
+                byName.put(name, id);
+                byNameIgnoreCase.put(name.toLowerCase(Locale.ROOT), id);
+            });
+            this.byName = Map.copyOf(byName);
+            this.byNameIgnoreCase = Map.copyOf(byNameIgnoreCase);
+        }
+    }
+}
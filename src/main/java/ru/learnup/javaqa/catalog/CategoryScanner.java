@@ -0,0 +1,274 @@
+package ru.learnup.javaqa.catalog;
+
+import lombok.Builder;
+import ru.learnup.javaqa.client.ApiResponse;
+import ru.learnup.javaqa.client.MarketClient;
+import ru.learnup.javaqa.dto.Category;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+//Поиск категорий перебором идентификаторов [from, to) одновременными GET categories/{id}.
+//Скорость подстраивается по AIMD: +increment запросов в секунду за каждый ответ 200/404,
+//вдвое меньше при 429, 5xx и сетевой ошибке (идентификатор повторяется до maxAttempts раз). Как в TCP, снижение - одно
+//на окно: ошибки запросов, отправленных до предыдущего снижения, скорость повторно не уменьшают.
+//Перебор заканчивается, когда после последней найденной категории подряд идет stopAfterMisses пустых идентификаторов.
+//Прогресс периодически сохраняется в checkpoint; повторный запуск с тем же файлом продолжает с места остановки.
+public class CategoryScanner {
+
+    private static final String NEXT = "next";
+    private static final String COMPLETE = "complete";
+    private static final String CATEGORY = "category.";
+    private static final String FAILED = "failed.";
+
+    private final MarketClient client;
+    private final long from;
+    private final long to;
+    private final int maxInFlight;
+    private final double minRate;
+    private final double maxRate;
+    private final double increment;
+    private final int maxAttempts;
+    private final int stopAfterMisses;
+    private final int checkpointEvery;
+    private final Path checkpoint;
+
+    private volatile double rate;
+    //Момент последнего снижения скорости (System.nanoTime); до первого снижения - создание сканера
+    private long lastDecrease = System.nanoTime() - 1;
+    private final NavigableMap<Long, String> found = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListSet<Long> outstanding = new ConcurrentSkipListSet<>();
+    private final Queue<Long> retries = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMap<Long, Integer> attempts = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Long> failed = new ConcurrentSkipListSet<>();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    @Builder
+    public CategoryScanner(MarketClient client, long from, long to, int maxInFlight, double initialRate,
+                           double minRate, double maxRate, double increment, int maxAttempts,
+                           int stopAfterMisses, int checkpointEvery, Path checkpoint) {
+        this.client = client;
+        this.from = from;
+        this.to = to;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.minRate = Math.max(0.1, minRate);
+        this.maxRate = Math.max(this.minRate, maxRate);
+        this.rate = Math.min(this.maxRate, Math.max(this.minRate, initialRate));
+        this.increment = increment;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.stopAfterMisses = stopAfterMisses > 0 ? stopAfterMisses : Integer.MAX_VALUE;
+        this.checkpointEvery = Math.max(1, checkpointEvery);
+        this.checkpoint = checkpoint;
+    }
+
+    public ScanResult scan() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        long next = resume();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long sendAt = System.nanoTime();
+        long lastCheckpoint = 0;
+
+        while (true) {
+            Long id = retries.poll();
+            if (id == null && next < to && !exhausted(next)) {
+                id = next++;
+            }
+            if (id == null) {
+                //Нечего отправлять: дождаться ответов, они могут вернуть повторы или сдвинуть последнюю найденную категорию
+                inFlight.acquire(maxInFlight);
+                inFlight.release(maxInFlight);
+                if (retries.isEmpty() && (next >= to || exhausted(next))) {
+                    break;
+                }
+                continue;
+            }
+
+            long wait = sendAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            sendAt = Math.max(sendAt, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(100))
+                    + (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+
+            inFlight.acquire();
+            outstanding.add(id);
+            long scanned = id;
+            long sentAt = System.nanoTime();
+            try {
+                client.getCategory(scanned).whenComplete((res, e) -> {
+                    try {
+                        handle(scanned, sentAt, res, e);
+                    } finally {
+                        outstanding.remove(scanned);
+                        inFlight.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                outstanding.remove(scanned);
+                inFlight.release();
+                throw e;
+            }
+
+            if (checkpoint != null && completed.sum() - lastCheckpoint >= checkpointEvery) {
+                lastCheckpoint = completed.sum();
+                writeCheckpoint(watermark(next), false);
+            }
+        }
+
+        if (checkpoint != null) {
+            writeCheckpoint(next, true);
+        }
+        return new ScanResult(found, completed.sum(), errors.sum(), failed, next,
+                next < to, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    private void handle(long id, long sentAt, ApiResponse res, Throwable e) {
+        int status = res == null ? 0 : res.getStatusCode();
+        String title = status == 200 ? title(res) : null;
+        if (status == 200 && title == null) {
+            //Ответ 200 без читаемой категории: исключение из обратного вызова потерялось бы вместе с идентификатором
+            completed.increment();
+            errors.increment();
+            attempts.remove(id);
+            failed.add(id);
+        } else if (status == 200 || status == 404) {
+            completed.increment();
+            if (title != null) {
+                found.put(id, title);
+            }
+            attempts.remove(id);
+            adjust(true, sentAt);
+        } else if (status == 0 || status == 429 || status >= 500) {
+            errors.increment();
+            adjust(false, sentAt);
+            if (attempts.merge(id, 1, Integer::sum) < maxAttempts) {
+                retries.add(id);
+            } else {
+                completed.increment();
+                attempts.remove(id);
+                failed.add(id);
+            }
+        } else {
+            //Прочие статусы (например, 400) повтором не исправить
+            completed.increment();
+            errors.increment();
+            failed.add(id);
+        }
+    }
+
+    //Имя категории из ответа; null - тело не разбирается или без имени.
+    //ApiResponse.as бросает и проверяемые исключения Jackson (@SneakyThrows), поэтому ловится Exception
+    private static String title(ApiResponse res) {
+        try {
+            return res.as(Category.class).getTitle();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private synchronized void adjust(boolean ok, long sentAt) {
+        if (ok) {
+            rate = Math.min(maxRate, rate + increment);
+        } else if (sentAt - lastDecrease > 0) {
+            rate = Math.max(minRate, rate / 2);
+            lastDecrease = System.nanoTime();
+        }
+    }
+
+    //Подряд stopAfterMisses идентификаторов без категорий после последней найденной (или после from)
+    private boolean exhausted(long next) {
+        Map.Entry<Long, String> last = found.lastEntry();
+        long lastFound = last == null ? from - 1 : Math.max(from - 1, last.getKey());
+        return next - 1 - lastFound >= stopAfterMisses;
+    }
+
+    //Все идентификаторы меньше watermark обработаны: с него продолжается прерванный перебор
+    private long watermark(long next) {
+        long low = next;
+        Long pending = outstanding.isEmpty() ? null : outstanding.first();
+        if (pending != null) {
+            low = Math.min(low, pending);
+        }
+        for (Long id : retries) {
+            low = Math.min(low, id);
+        }
+        return low;
+    }
+
+    private long resume() throws IOException {
+        if (checkpoint == null || !Files.exists(checkpoint)) {
+            return from;
+        }
+        Properties props = new Properties();
+        try (Reader in = Files.newBufferedReader(checkpoint, StandardCharsets.UTF_8)) {
+            props.load(in);
+        }
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith(CATEGORY)) {
+                found.put(Long.parseLong(key.substring(CATEGORY.length())), props.getProperty(key));
+            } else if (key.startsWith(FAILED)) {
+                //Не обработанные в прошлый раз идентификаторы пробуются снова
+                retries.add(Long.parseLong(key.substring(FAILED.length())));
+            }
+        }
+        return Math.max(from, Long.parseLong(props.getProperty(NEXT, String.valueOf(from))));
+    }
+
+    //Запись во временный файл и атомарная подмена: прерванная запись не портит прежний checkpoint
+    private void writeCheckpoint(long next, boolean complete) throws IOException {
+        Properties props = new Properties();
+        props.setProperty(NEXT, String.valueOf(next));
+        props.setProperty(COMPLETE, String.valueOf(complete));
+        found.forEach((id, title) -> props.setProperty(CATEGORY + id, title));
+        for (Long id : failed) {
+            props.setProperty(FAILED + id, "");
+        }
+        if (checkpoint.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(checkpoint.toAbsolutePath().getParent());
+        }
+        Path tmp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            props.store(out, "category scan " + from + ".." + to);
+        }
+        Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    //Найденные категории из файла checkpoint, например для CategoryCatalog
+    public static Map<Long, String> readCategories(Path file) throws IOException {
+        Properties props = new Properties();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(in);
+        }
+        Map<Long, String> categories = new ConcurrentSkipListMap<>();
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith(CATEGORY)) {
+                categories.put(Long.parseLong(key.substring(CATEGORY.length())), props.getProperty(key));
+            }
+        }
+        return categories;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.learnup.javaqa.catalog;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+//Итог перебора категорий: найденные категории, статистика и заготовка констант для CategoryType
+@Getter
+public class ScanResult {
+
+    private final Map<Long, String> categories;
+    private final long scanned;
+    private final long errors;
+    private final List<Long> failed;
+    //Первый непроверенный идентификатор
+    private final long next;
+    private final boolean stoppedEarly;
+    private final Duration elapsed;
+
+    ScanResult(Map<Long, String> categories, long scanned, long errors, Collection<Long> failed,
+               long next, boolean stoppedEarly, Duration elapsed) {
+        this.categories = new TreeMap<>(categories);
+        this.scanned = scanned;
+        this.errors = errors;
+        this.failed = List.copyOf(failed);
+        this.next = next;
+        this.stoppedEarly = stoppedEarly;
+        this.elapsed = elapsed;
+    }
+
+    //Константы в формате CategoryType: FOOD(1L, "Food"),
+    public String toEnumConstants() {
+        StringBuilder sb = new StringBuilder();
+        categories.forEach((id, title) -> sb.append("    ").append(constantName(title))
+                .append('(').append(id).append("L, \"")
+                .append(title.replace("\\", "\\\\").replace("\"", "\\\"")).append("\"),\n"));
+        return sb.toString();
+    }
+
+    static String constantName(String title) {
+        String name = title.toUpperCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", "_").replaceAll("^_|_$", "");
+        return name.isEmpty() || Character.isDigit(name.charAt(0)) ? "_" + name : name;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("categories=%d scanned=%d errors=%d failed=%d next=%d stoppedEarly=%s elapsed=%.1f s",
+                categories.size(), scanned, errors, failed.size(), next, stoppedEarly, elapsed.toMillis() / 1000.0);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.learnup.javaqa.client;
+
+import lombok.Getter;
+import lombok.SneakyThrows;
+import ru.learnup.javaqa.dto.DtoMapper;
+
+//Ответ API, не зависящий от HTTP-клиента: статус, Content-Type и тело целиком
+@Getter
+public class ApiResponse {
+
+    private final int statusCode;
+    private final String contentType;
+    private final byte[] body;
+
+    public ApiResponse(int statusCode, String contentType, byte[] body) {
+        this.statusCode = statusCode;
+        this.contentType = contentType == null ? "" : contentType;
+        this.body = body == null ? new byte[0] : body;
+    }
+
+    //Тело в DTO через общий DtoMapper, как и в RestAssured-тестах
+    @SneakyThrows
+    public <T> T as(Class<T> type) {
+        return DtoMapper.INSTANCE.reader(type).readValue(body);
+    }
+
+    @Override
+    public String toString() {
+        return statusCode + " " + contentType + " " + body.length + " bytes";
+    }
+}
@@ -0,0 +1,136 @@
+package ru.learnup.javaqa.client;
+
+import lombok.Builder;
+import lombok.SneakyThrows;
+import ru.learnup.javaqa.dto.DtoMapper;
+import ru.learnup.javaqa.metrics.LatencyRecorder;
+import ru.learnup.javaqa.metrics.LatencySlo;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static ru.learnup.javaqa.Endpoints.CATEGORY_ID_ENDPOINT;
+import static ru.learnup.javaqa.Endpoints.PRODUCT_ENDPOINT;
+import static ru.learnup.javaqa.Endpoints.PRODUCT_ID_ENDPOINT;
+
+//Неблокирующая реализация на java.net.http.HttpClient: запрос в полете не занимает поток,
+//поэтому сотни одновременных запросов отправляются из одного потока теста без пула потоков.
+//Фильтры RestAssured (Allure, логирование) здесь не работают; задержки пишутся в тот же LatencyRecorder.
+public class AsyncMarketClient implements MarketClient {
+
+    private static final String JSON = "application/json";
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final LatencyRecorder latency;
+
+    @Builder
+    public AsyncMarketClient(String baseUrl, Duration connectTimeout, Duration requestTimeout,
+                             Executor executor, LatencyRecorder latency) {
+        //Базовый адрес без завершающего слеша, пути Endpoints приводятся к виду "/..."
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.latency = latency;
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                //Сервер отвечает только по HTTP/1.1; без этого клиент пробует h2c upgrade
+                .version(HttpClient.Version.HTTP_1_1);
+        if (connectTimeout != null) {
+            builder.connectTimeout(connectTimeout);
+        }
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        this.client = builder.build();
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> createProduct(Object product) {
+        return send("POST", PRODUCT_ENDPOINT, null, product);
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> updateProduct(Object product) {
+        return send("PUT", PRODUCT_ENDPOINT, null, product);
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> getProduct(Object id) {
+        return send("GET", PRODUCT_ID_ENDPOINT, id, null);
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> getProducts() {
+        return send("GET", PRODUCT_ENDPOINT, null, null);
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> deleteProduct(Object id) {
+        return send("DELETE", PRODUCT_ID_ENDPOINT, id, null);
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> getCategory(Object id) {
+        return send("GET", CATEGORY_ID_ENDPOINT, id, null);
+    }
+
+    private CompletableFuture<ApiResponse> send(String method, String endpoint, Object id, Object body) {
+        HttpRequest.Builder request;
+        try {
+            request = HttpRequest.newBuilder(uri(endpoint, id))
+                    .method(method, body == null
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofByteArray(serialize(body)));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (body != null) {
+            request.header("Content-Type", JSON);
+        }
+        if (requestTimeout != null) {
+            request.timeout(requestTimeout);
+        }
+
+        //Шаблон пути в отчете задержек - как у LatencyFilter: с ведущим слешем
+        String template = endpoint.startsWith("/") ? endpoint : "/" + endpoint;
+        //Превышение SLO засчитывается потоку, отправившему запрос, а не потоку HttpClient
+        List<String> breaches = LatencySlo.threadBreaches();
+        long started = System.nanoTime();
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((res, e) -> {
+                    if (latency != null) {
+                        latency.record(method, template, res == null ? 0 : res.statusCode(), System.nanoTime() - started,
+                                breaches);
+                    }
+                })
+                .thenApply(res -> new ApiResponse(res.statusCode(),
+                        res.headers().firstValue("Content-Type").orElse(null), res.body()));
+    }
+
+    private URI uri(String endpoint, Object id) {
+        String path = endpoint.startsWith("/") ? endpoint : "/" + endpoint;
+        if (id != null) {
+            //Как path-параметр RestAssured: значение кодируется, пробел - %20, а не +
+            path = path.replace("{id}", URLEncoder.encode(String.valueOf(id), StandardCharsets.UTF_8).replace("+", "%20"));
+        }
+        return URI.create(baseUrl + path);
+    }
+
+    @SneakyThrows
+    private static byte[] serialize(Object body) {
+        return DtoMapper.INSTANCE.writer(body.getClass()).writeValueAsBytes(body);
+    }
+
+    @Override
+    public String toString() {
+        return "java.net.http";
+    }
+}
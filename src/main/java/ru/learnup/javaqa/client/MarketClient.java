@@ -0,0 +1,33 @@
+package ru.learnup.javaqa.client;
+
+import ru.learnup.javaqa.dto.Product;
+
+import java.util.concurrent.CompletableFuture;
+
+//Клиент контроллеров продуктов и категорий (пути - из Endpoints).
+//Все методы возвращают CompletableFuture: асинхронная реализация не блокирует поток на время запроса,
+//блокирующая возвращает уже завершенный future. Идентификатор - Object, чтобы передавать и некорректные значения.
+public interface MarketClient {
+
+    CompletableFuture<ApiResponse> createProduct(Object product);
+
+    CompletableFuture<ApiResponse> updateProduct(Object product);
+
+    CompletableFuture<ApiResponse> getProduct(Object id);
+
+    CompletableFuture<ApiResponse> getProducts();
+
+    CompletableFuture<ApiResponse> deleteProduct(Object id);
+
+    CompletableFuture<ApiResponse> getCategory(Object id);
+
+    //Создание с проверкой статуса 201 - для подготовки данных
+    default CompletableFuture<Product> createProductOK(Product product) {
+        return createProduct(product).thenApply(res -> {
+            if (res.getStatusCode() != 201) {
+                throw new IllegalStateException("POST product returned " + res);
+            }
+            return res.as(Product.class);
+        });
+    }
+}
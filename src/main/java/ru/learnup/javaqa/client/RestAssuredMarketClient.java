@@ -0,0 +1,64 @@
+package ru.learnup.javaqa.client;
+
+import io.restassured.response.Response;
+import ru.learnup.javaqa.api.CategoryApi;
+import ru.learnup.javaqa.api.ProductApi;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+//Блокирующая реализация поверх ProductApi/CategoryApi: запрос выполняется в вызывающем потоке со всеми фильтрами спека
+public class RestAssuredMarketClient implements MarketClient {
+
+    private final ProductApi products;
+    private final CategoryApi categories;
+
+    public RestAssuredMarketClient(ProductApi products, CategoryApi categories) {
+        this.products = products;
+        this.categories = categories;
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> createProduct(Object product) {
+        return done(() -> products.post(product));
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> updateProduct(Object product) {
+        return done(() -> products.put(product));
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> getProduct(Object id) {
+        return done(() -> products.get(id));
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> getProducts() {
+        return done(products::getAll);
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> deleteProduct(Object id) {
+        return done(() -> products.delete(id));
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> getCategory(Object id) {
+        return done(() -> categories.get(id));
+    }
+    //Ошибка запроса возвращается завершенным с исключением future, как и в асинхронной реализации
+    private static CompletableFuture<ApiResponse> done(Supplier<Response> request) {
+        try {
+            Response res = request.get();
+            return CompletableFuture.completedFuture(new ApiResponse(res.statusCode(), res.contentType(), res.asByteArray()));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RestAssured";
+    }
+}
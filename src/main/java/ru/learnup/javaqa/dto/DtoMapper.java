@@ -0,0 +1,70 @@
+package ru.learnup.javaqa.dto;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.mapper.ObjectMapperDeserializationContext;
+import io.restassured.mapper.ObjectMapperSerializationContext;
+import lombok.SneakyThrows;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+//Общий ObjectMapper для DTO с заранее созданными ObjectReader/ObjectWriter.
+//Стандартный Jackson2Mapper RestAssured создает новый ObjectMapper (с поиском модулей) на каждый вызов.
+public final class DtoMapper implements io.restassured.mapper.ObjectMapper {
+
+    public static final DtoMapper INSTANCE = new DtoMapper();
+
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .addModule(new BlackbirdModule())
+            .build();
+
+    private final ConcurrentMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    private DtoMapper() {
+        for (Class<?> dto : new Class<?>[]{Product.class, ProductDouble.class, Category.class, Products.class}) {
+            reader(dto);
+            writer(dto);
+        }
+    }
+
+    public ObjectMapper mapper() {
+        return mapper;
+    }
+
+    public ObjectReader reader(Type type) {
+        return readers.computeIfAbsent(type, t -> {
+            JavaType javaType = mapper.getTypeFactory().constructType(t);
+            return mapper.readerFor(javaType);
+        });
+    }
+
+    public ObjectWriter writer(Class<?> type) {
+        return writers.computeIfAbsent(type, mapper::writerFor);
+    }
+
+    //Подключение к RestAssured: RestAssuredConfig.objectMapperConfig(DtoMapper.INSTANCE.config())
+    public ObjectMapperConfig config() {
+        return ObjectMapperConfig.objectMapperConfig().defaultObjectMapper(this);
+    }
+
+    @SneakyThrows
+    @Override
+    public Object deserialize(ObjectMapperDeserializationContext context) {
+        return reader(context.getType()).readValue(context.getDataToDeserialize().asByteArray());
+    }
+
+    @SneakyThrows
+    @Override
+    public Object serialize(ObjectMapperSerializationContext context) {
+        Object value = context.getObjectToSerialize();
+        return writer(value.getClass()).writeValueAsString(value);
+    }
+}
@@ -2,6 +2,9 @@ package ru.learnup.javaqa.enums;
 
 import lombok.Getter;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Getter
 public enum CategoryType {
     FOOD(1L, "Food"),
@@ -22,8 +25,33 @@ public enum CategoryType {
     private Long id;
     private String name;
 
+    //Индексы строятся один раз при инициализации класса; поиск без обхода values() и без аллокаций
+    private static final Map<Long, CategoryType> BY_ID;
+    private static final Map<String, CategoryType> BY_NAME;
+
+    static {
+        Map<Long, CategoryType> byId = new HashMap<>();
+        Map<String, CategoryType> byName = new HashMap<>();
+        for (CategoryType c : values()) {
+            byId.put(c.id, c);
+            byName.put(c.name, c);
+        }
+        BY_ID = Map.copyOf(byId);
+        BY_NAME = Map.copyOf(byName);
+    }
+
     CategoryType(Long id, String name) {
         this.id = id;
         this.name = name;
     }
+
+    //null, если категории с таким идентификатором нет
+    public static CategoryType fromId(Long id) {
+        return id == null ? null : BY_ID.get(id);
+    }
+
+    //null, если категории с таким именем нет
+    public static CategoryType fromName(String name) {
+        return name == null ? null : BY_NAME.get(name);
+    }
 }
\ No newline at end of file
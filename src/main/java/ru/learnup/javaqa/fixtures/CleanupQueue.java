@@ -0,0 +1,169 @@
+package ru.learnup.javaqa.fixtures;
+
+import lombok.Builder;
+import ru.learnup.javaqa.api.ProductApi;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+//Фоновое удаление созданных тестами продуктов: тест только ставит идентификатор в очередь и не ждет DELETE.
+//Ограниченное число потоков, повтор при 5xx и сетевых ошибках с растущей паузой, выборочная проверка
+//удаления GET-запросом. Ожидание - один раз в конце прогона (drain), там же сводка по неудаленным продуктам.
+public class CleanupQueue {
+
+    private final ProductApi api;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final double verifyRate;
+
+    private final ScheduledThreadPoolExecutor executor;
+    //Поставленные в очередь, но еще не обработанные идентификаторы (включая ожидающие повтора)
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Object drained = new Object();
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+    private final LongAdder alreadyGone = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder verified = new LongAdder();
+    private final ConcurrentMap<Long, String> leaked = new ConcurrentHashMap<>();
+
+    @Builder
+    public CleanupQueue(ProductApi api, int workers, int maxAttempts, long retryDelayMillis, double verifyRate) {
+        this.api = api;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelayMillis = retryDelayMillis;
+        this.verifyRate = verifyRate;
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1, workers), r -> {
+            Thread t = new Thread(r, "product-cleanup");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void enqueue(Long id) {
+        if (id == null) {
+            return;
+        }
+        enqueued.increment();
+        pending.incrementAndGet();
+        try {
+            executor.execute(() -> delete(id, 1));
+        } catch (RejectedExecutionException e) {
+            done(id, "enqueued after drain");
+        }
+    }
+
+    //Ждет обработки всех идентификаторов и останавливает потоки; true - очередь опустела до таймаута
+    public boolean drain(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (drained) {
+            while (pending.get() > 0) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    break;
+                }
+                TimeUnit.NANOSECONDS.timedWait(drained, left);
+            }
+        }
+        executor.shutdownNow();
+        return pending.get() == 0;
+    }
+
+    //Неудаленные продукты и причина; после неудачного drain сюда не попадают еще не обработанные
+    public Map<Long, String> getLeaked() {
+        return new TreeMap<>(leaked);
+    }
+
+    public int getPending() {
+        return pending.get();
+    }
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder(String.format(
+                "cleanup enqueued=%d deleted=%d alreadyGone=%d retries=%d verified=%d leaked=%d pending=%d%n",
+                enqueued.sum(), deleted.sum(), alreadyGone.sum(), retries.sum(), verified.sum(),
+                leaked.size(), pending.get()));
+        getLeaked().forEach((id, reason) -> sb.append("  ").append(id).append(": ").append(reason).append('\n'));
+        return sb.toString();
+    }
+
+    public void writeSummary(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, summary().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void delete(Long id, int attempt) {
+        int status;
+        try {
+            status = api.delete(id).statusCode();
+        } catch (RuntimeException e) {
+            retryOrLeak(id, attempt, e.toString());
+            return;
+        }
+        if (status == 200) {
+            deleted.increment();
+            if (verifyRate > 0 && ThreadLocalRandom.current().nextDouble() < verifyRate) {
+                verify(id);
+            } else {
+                done(id, null);
+            }
+        } else if (status == 404) {
+            //Уже удален, например самим тестом
+            alreadyGone.increment();
+            done(id, null);
+        } else if (status >= 500) {
+            retryOrLeak(id, attempt, "DELETE returned " + status);
+        } else {
+            done(id, "DELETE returned " + status);
+        }
+    }
+
+    private void verify(Long id) {
+        verified.increment();
+        try {
+            int status = api.get(id).statusCode();
+            done(id, status == 404 ? null : "GET after DELETE returned " + status);
+        } catch (RuntimeException e) {
+            done(id, "GET after DELETE failed: " + e);
+        }
+    }
+
+    private void retryOrLeak(Long id, int attempt, String reason) {
+        if (attempt >= maxAttempts) {
+            done(id, reason + " after " + attempt + " attempts");
+            return;
+        }
+        retries.increment();
+        try {
+            executor.schedule(() -> delete(id, attempt + 1), retryDelayMillis * attempt, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            done(id, reason + " (cleanup stopped before retry)");
+        }
+    }
+
+    private void done(Long id, String leakReason) {
+        if (leakReason != null) {
+            leaked.put(id, leakReason);
+        }
+        if (pending.decrementAndGet() == 0) {
+            synchronized (drained) {
+                drained.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package ru.learnup.javaqa.fixtures;
+
+import lombok.Builder;
+import ru.learnup.javaqa.api.ProductApi;
+import ru.learnup.javaqa.dto.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ru.learnup.javaqa.enums.CategoryType.FOOD;
+
+//Пул заранее созданных продуктов для тестов, которым нужен существующий продукт (PUT).
+//Продукты создаются параллельно один раз на класс, выдаются тестам в аренду и после теста возвращаются:
+//PUT перезаписывает все поля, поэтому следующий тест получает такой же пригодный продукт.
+//Удаление - через CleanupQueue: продукты пула ставятся в очередь в close(), переданные через discard() - сразу.
+public class ProductFixturePool implements AutoCloseable {
+
+    private static final long LEASE_TIMEOUT_SECONDS = 30;
+
+    private final ProductApi api;
+    private final CleanupQueue cleanup;
+    private final int size;
+    private final int concurrency;
+
+    private final BlockingQueue<Long> available = new LinkedBlockingQueue<>();
+    //Все созданные пулом продукты, в том числе выданные в аренду
+    private final Set<Long> owned = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Builder
+    public ProductFixturePool(ProductApi api, CleanupQueue cleanup, int size, int concurrency) {
+        this.api = api;
+        this.cleanup = cleanup;
+        this.size = size;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    //Параллельное создание size продуктов; ошибка создания любого из них - ошибка всего пула,
+    //но уже созданные продукты остаются в owned и удаляются после close()
+    public ProductFixturePool fill() {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<CompletableFuture<Long>> created = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                created.add(CompletableFuture.supplyAsync(() -> {
+                    Long id = create();
+                    owned.add(id);
+                    return id;
+                }, workers));
+            }
+            created.forEach(f -> available.add(f.join()));
+        } finally {
+            workers.shutdown();
+        }
+        return this;
+    }
+
+    //Ждет свободный продукт, если все заняты параллельными тестами
+    public Long lease() {
+        try {
+            Long id = available.poll(LEASE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (id == null) {
+                throw new IllegalStateException("No fixture product released within " + LEASE_TIMEOUT_SECONDS + " s");
+            }
+            return id;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void release(Long id) {
+        available.add(id);
+    }
+
+    //Продукт, созданный самим тестом: сразу в очередь на удаление
+    public void discard(Long id) {
+        cleanup.enqueue(id);
+    }
+
+    //Все продукты пула - в очередь на удаление; ожидание удаления - в конце прогона
+    @Override
+    public void close() {
+        owned.forEach(cleanup::enqueue);
+        owned.clear();
+        available.clear();
+    }
+
+    private Long create() {
+        Product p = Product.builder()
+                .title("fixture-" + sequence.incrementAndGet())
+                .price(1)
+                .categoryTitle(FOOD.getName())
+                .build();
+        return api.create(p).getId();
+    }
+}
@@ -0,0 +1,29 @@
+package ru.learnup.javaqa.fuzz;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.learnup.javaqa.dto.ProductDouble;
+
+//Один вход фаззера: тело запроса и все, что нужно для его повтора
+@Getter
+@Builder(toBuilder = true)
+public class FuzzCase {
+
+    private final FuzzTarget target;
+
+    //Зерно, из которого грамматика получила тело; 0 - тело записано вручную или уменьшено
+    private final long seed;
+
+    private final ProductDouble payload;
+
+    //id тела - существующий продукт стенда: при повторе подставляется идентификатор текущего стенда
+    private final boolean existingId;
+
+    //Класс ошибки, которую вызвал вход (для корпуса), null - вход без известной ошибки
+    private final String signature;
+
+    @Override
+    public String toString() {
+        return target + " " + FuzzCorpus.toJson(payload) + (existingId ? " (existing id)" : "");
+    }
+}
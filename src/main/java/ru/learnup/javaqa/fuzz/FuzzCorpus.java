@@ -0,0 +1,86 @@
+package ru.learnup.javaqa.fuzz;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+import ru.learnup.javaqa.dto.DtoMapper;
+import ru.learnup.javaqa.dto.ProductDouble;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+//Корпус входов фаззера: по одному JSON на строку
+//  {"target":"POST","signature":"POST 500","seed":0,"existingId":false,"payload":{...}}
+//Пустые строки и строки, начинающиеся с #, пропускаются. Найденные и уменьшенные входы дописываются в конец,
+//а корпус, сохраненный в src/test/resources, повторяется в регрессионных тестах.
+@UtilityClass
+public class FuzzCorpus {
+
+    private final ObjectMapper MAPPER = DtoMapper.INSTANCE.mapper();
+
+    @SneakyThrows
+    public String toJson(ProductDouble payload) {
+        return DtoMapper.INSTANCE.writer(ProductDouble.class).writeValueAsString(payload);
+    }
+
+    //Пустой список, если файла нет
+    public List<FuzzCase> read(Path file) throws IOException {
+        List<FuzzCase> cases = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return cases;
+        }
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int number = 0;
+            while ((line = in.readLine()) != null) {
+                number++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    cases.add(parse(MAPPER.readTree(line)));
+                } catch (IOException | RuntimeException e) {
+                    throw new IOException(file + ":" + number + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return cases;
+    }
+
+    public synchronized void append(Path file, FuzzCase c) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        ObjectNode line = MAPPER.createObjectNode();
+        line.put("target", c.getTarget().name());
+        line.put("signature", c.getSignature());
+        line.put("seed", c.getSeed());
+        line.put("existingId", c.isExistingId());
+        line.set("payload", MAPPER.valueToTree(c.getPayload()));
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(MAPPER.writeValueAsString(line));
+            out.write('\n');
+        }
+    }
+
+    private FuzzCase parse(JsonNode node) throws IOException {
+        JsonNode signature = node.path("signature");
+        return FuzzCase.builder()
+                .target(FuzzTarget.valueOf(node.path("target").asText()))
+                .signature(signature.isTextual() ? signature.asText() : null)
+                .seed(node.path("seed").asLong())
+                .existingId(node.path("existingId").asBoolean())
+                .payload(MAPPER.treeToValue(node.path("payload"), ProductDouble.class))
+                .build();
+    }
+}
@@ -0,0 +1,163 @@
+package ru.learnup.javaqa.fuzz;
+
+import lombok.Builder;
+import ru.learnup.javaqa.client.ApiResponse;
+import ru.learnup.javaqa.client.MarketClient;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+//Фаззинг одного запроса: тела из PayloadGrammar отправляются одновременно (не больше maxInFlight без ответа,
+//не чаще rate в секунду, rate <= 0 - без ограничения), ответы проверяет FuzzOracle.
+//Прогон заканчивается после cases входов, по истечении duration или после maxFailures разных классов ошибок.
+//Зерно каждого входа берется из общего SplittableRandom(seed), поэтому прогон с тем же seed повторяет те же входы.
+//Первый вход каждого класса ошибки уменьшается (Shrinker) последовательными запросами, пока ошибка
+//воспроизводится, но не дольше shrinkSteps запросов, и дописывается в corpus.
+public class FuzzEngine {
+
+    private final MarketClient client;
+    private final FuzzTarget target;
+    private final PayloadGrammar grammar;
+    private final long seed;
+    private final long cases;
+    private final Duration duration;
+    private final int maxInFlight;
+    private final double rate;
+    private final int shrinkSteps;
+    private final int maxFailures;
+    //Идентификаторы созданных при прогоне продуктов, например CleanupQueue::enqueue
+    private final Consumer<Long> createdIds;
+    private final Path corpus;
+
+    private final ConcurrentMap<String, FuzzFailure> failures = new ConcurrentHashMap<>();
+
+    @Builder
+    public FuzzEngine(MarketClient client, FuzzTarget target, PayloadGrammar grammar, long seed, long cases,
+                      Duration duration, int maxInFlight, double rate, int shrinkSteps, int maxFailures,
+                      Consumer<Long> createdIds, Path corpus) {
+        this.client = client;
+        this.target = target;
+        this.grammar = grammar;
+        this.seed = seed;
+        this.cases = cases > 0 ? cases : Long.MAX_VALUE;
+        this.duration = duration;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.rate = rate;
+        this.shrinkSteps = shrinkSteps;
+        this.maxFailures = maxFailures > 0 ? maxFailures : Integer.MAX_VALUE;
+        this.createdIds = createdIds == null ? id -> { } : createdIds;
+        this.corpus = corpus;
+    }
+
+    public FuzzReport run() throws IOException, InterruptedException {
+        FuzzReport report = new FuzzReport(target, seed);
+        SplittableRandom master = new SplittableRandom(seed);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long start = System.nanoTime();
+        long deadline = duration == null ? Long.MAX_VALUE : start + duration.toNanos();
+        long sendAt = start;
+
+        for (long sent = 0; sent < cases && System.nanoTime() - deadline < 0 && failures.size() < maxFailures; sent++) {
+            FuzzCase c = grammar.generate(target, master.nextLong());
+            if (rate > 0) {
+                long wait = sendAt - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                sendAt = Math.max(sendAt, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(100))
+                        + (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+            }
+            inFlight.acquire();
+            CompletableFuture<ApiResponse> future;
+            try {
+                future = target.send(client, c.getPayload());
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((res, e) -> {
+                try {
+                    handle(report, c, res, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+        long elapsed = System.nanoTime() - start;
+
+        List<FuzzFailure> found = new ArrayList<>(failures.values());
+        found.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+        for (FuzzFailure f : found) {
+            shrink(f);
+            if (corpus != null) {
+                FuzzCorpus.append(corpus, f.getShrunk());
+            }
+        }
+        report.finish(found, elapsed);
+        return report;
+    }
+
+    private void handle(FuzzReport report, FuzzCase c, ApiResponse res, Throwable e) {
+        report.record(res == null ? 0 : res.getStatusCode());
+        Long created = FuzzOracle.createdId(c, res);
+        if (created != null) {
+            createdIds.accept(created);
+        }
+        String signature = FuzzOracle.check(c, res, e);
+        if (signature != null) {
+            failures.computeIfAbsent(signature, s -> new FuzzFailure(s, c)).hit();
+        }
+    }
+
+    //Жадное уменьшение: первый вариант, сохраняющий класс ошибки, становится текущим входом
+    private void shrink(FuzzFailure failure) {
+        FuzzCase current = failure.getFirst();
+        int steps = 0;
+        boolean improved = true;
+        while (improved && steps < shrinkSteps) {
+            improved = false;
+            for (FuzzCase candidate : Shrinker.candidates(current)) {
+                if (steps++ >= shrinkSteps) {
+                    break;
+                }
+                if (failure.getSignature().equals(execute(candidate))) {
+                    current = candidate;
+                    improved = true;
+                    break;
+                }
+            }
+        }
+        failure.shrunk(current, Math.min(steps, shrinkSteps));
+    }
+
+    //Класс ошибки для одного входа, отправленного синхронно
+    private String execute(FuzzCase c) {
+        ApiResponse res = null;
+        Throwable error = null;
+        try {
+            res = target.send(client, c.getPayload()).join();
+        } catch (CompletionException e) {
+            error = e.getCause();
+        } catch (RuntimeException e) {
+            error = e;
+        }
+        Long created = FuzzOracle.createdId(c, res);
+        if (created != null) {
+            createdIds.accept(created);
+        }
+        return FuzzOracle.check(c, res, error);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.learnup.javaqa.fuzz;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+//Находки одного класса: первый вызвавший ее вход, его уменьшенная версия и число таких входов в прогоне
+public class FuzzFailure {
+
+    @Getter
+    private final String signature;
+    @Getter
+    private final FuzzCase first;
+    private final LongAdder count = new LongAdder();
+    @Getter
+    private volatile FuzzCase shrunk;
+    //Запросов, потраченных на уменьшение
+    @Getter
+    private volatile int shrinkSteps;
+
+    FuzzFailure(String signature, FuzzCase first) {
+        this.signature = signature;
+        this.first = first.toBuilder().signature(signature).build();
+        this.shrunk = this.first;
+    }
+
+    void hit() {
+        count.increment();
+    }
+
+    void shrunk(FuzzCase shrunk, int steps) {
+        this.shrunk = shrunk;
+        this.shrinkSteps = steps;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d cases, seed %d, shrunk in %d requests to %s",
+                signature, getCount(), first.getSeed(), shrinkSteps, shrunk);
+    }
+}
@@ -0,0 +1,70 @@
+package ru.learnup.javaqa.fuzz;
+
+import lombok.experimental.UtilityClass;
+import ru.learnup.javaqa.client.ApiResponse;
+import ru.learnup.javaqa.dto.Product;
+
+import java.util.Objects;
+
+//Что считается ошибкой для любого тела запроса, без знания правил валидации стенда:
+//5xx, обрыв, ответ не в JSON, статус вне FuzzTarget.isExpected и успешный ответ, не совпадающий с запросом.
+//Результат - класс ошибки (например, "POST 500"): по нему находки группируются и сверяются при уменьшении входа.
+@UtilityClass
+public class FuzzOracle {
+
+    private static final String JSON = "application/json";
+
+    //null - ответ допустим.
+    //ApiResponse.as бросает и проверяемые исключения Jackson (@SneakyThrows), поэтому ловится Exception:
+    //исключение из обратного вызова FuzzEngine потерялось бы вместе с находкой
+    public String check(FuzzCase c, ApiResponse res, Throwable error) {
+        FuzzTarget target = c.getTarget();
+        if (error != null || res == null) {
+            Throwable cause = error != null && error.getCause() != null ? error.getCause() : error;
+            return target + " no response" + (cause == null ? "" : ": " + cause.getClass().getSimpleName());
+        }
+        int status = res.getStatusCode();
+        if (status >= 500) {
+            return target + " " + status;
+        }
+        if (!target.isExpected(status)) {
+            return target + " unexpected " + status;
+        }
+        if (!res.getContentType().startsWith(JSON)) {
+            return target + " " + status + " not JSON";
+        }
+        if (status != target.getSuccessStatus()) {
+            return null;
+        }
+        Product p;
+        try {
+            p = res.as(Product.class);
+        } catch (Exception e) {
+            return target + " " + status + " unreadable product";
+        }
+        if (p.getId() == null) {
+            return target + " " + status + " without id";
+        }
+        Object title = c.getPayload().getTitle();
+        if (title instanceof String && !title.equals(p.getTitle())) {
+            return target + " " + status + " title changed";
+        }
+        Object price = c.getPayload().getPrice();
+        if (price instanceof Integer && !Objects.equals(price, p.getPrice())) {
+            return target + " " + status + " price changed";
+        }
+        return null;
+    }
+
+    //Идентификатор созданного продукта для удаления после прогона, null - продукт не создан
+    public Long createdId(FuzzCase c, ApiResponse res) {
+        if (c.getTarget() != FuzzTarget.POST || res == null || res.getStatusCode() / 100 != 2) {
+            return null;
+        }
+        try {
+            return res.as(Product.class).getId();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ru.learnup.javaqa.fuzz;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+//Итог прогона фаззера: входы по статусам ответа (0 - без ответа), найденные классы ошибок, скорость
+public class FuzzReport {
+
+    private final FuzzTarget target;
+    private final long seed;
+    private final ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder cases = new LongAdder();
+    private final List<FuzzFailure> failures = new ArrayList<>();
+    private volatile long elapsedNanos;
+
+    FuzzReport(FuzzTarget target, long seed) {
+        this.target = target;
+        this.seed = seed;
+    }
+
+    void record(int status) {
+        cases.increment();
+        statuses.computeIfAbsent(status, k -> new LongAdder()).increment();
+    }
+
+    void finish(Collection<FuzzFailure> failures, long elapsedNanos) {
+        this.failures.addAll(failures);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public FuzzTarget getTarget() {
+        return target;
+    }
+
+    //Зерно прогона: с ним прогон повторяет ту же последовательность входов
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getCases() {
+        return cases.sum();
+    }
+
+    public Map<Integer, Long> getStatuses() {
+        Map<Integer, Long> result = new TreeMap<>();
+        statuses.forEach((status, count) -> result.put(status, count.sum()));
+        return result;
+    }
+
+    public List<FuzzFailure> getFailures() {
+        return failures;
+    }
+
+    //Входов в секунду без учета уменьшения находок
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getCases() * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(String.format(
+                "%s seed=%d cases=%d statuses=%s failures=%d elapsed=%.1f s throughput=%.0f/s",
+                target, seed, getCases(), getStatuses(), failures.size(), elapsedNanos / 1e9, getThroughput()));
+        for (FuzzFailure f : failures) {
+            sb.append('\n').append("  ").append(f);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,29 @@
+package ru.learnup.javaqa.fuzz;
+
+import lombok.Getter;
+import ru.learnup.javaqa.client.ApiResponse;
+import ru.learnup.javaqa.client.MarketClient;
+
+import java.util.concurrent.CompletableFuture;
+
+//Запрос, в который подставляются сгенерированные тела, и допустимые статусы ответа на него
+@Getter
+public enum FuzzTarget {
+    POST(201),
+    PUT(200);
+
+    private final int successStatus;
+
+    FuzzTarget(int successStatus) {
+        this.successStatus = successStatus;
+    }
+
+    //Успех, ошибка валидации или несуществующая категория; все остальное - находка
+    public boolean isExpected(int status) {
+        return status == successStatus || status == 400 || status == 404;
+    }
+
+    public CompletableFuture<ApiResponse> send(MarketClient client, Object payload) {
+        return this == POST ? client.createProduct(payload) : client.updateProduct(payload);
+    }
+}
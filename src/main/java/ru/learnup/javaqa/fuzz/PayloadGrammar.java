@@ -0,0 +1,140 @@
+package ru.learnup.javaqa.fuzz;
+
+import lombok.Builder;
+import ru.learnup.javaqa.dto.ProductDouble;
+import ru.learnup.javaqa.enums.CategoryType;
+import ru.learnup.javaqa.generators.Alphabet;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+//Грамматика тел ProductDouble. Каждое поле с вероятностью validShare получает корректное значение,
+//иначе - значение случайной формы: отсутствие поля, граничные int, long и BigInteger, дробные числа,
+//логические значения, строки из наборов Alphabet (включая пустые, пробельные и длинные), числа в строках,
+//массивы и объекты. Почти корректные тела (одно-два испорченных поля) доходят до проверок глубже разбора JSON.
+//Тело зависит только от зерна: один и тот же seed всегда дает один и тот же вход.
+public class PayloadGrammar {
+
+    private static final int[] INT_BOUNDARIES = {0, 1, -1, Integer.MAX_VALUE, Integer.MIN_VALUE, Short.MAX_VALUE + 1};
+    private static final long[] LONG_BOUNDARIES = {Integer.MAX_VALUE + 1L, Integer.MIN_VALUE - 1L, Long.MAX_VALUE, Long.MIN_VALUE};
+    private static final double[] DECIMALS = {0.5, 1.0, -0.0, 1e-9, 1.7976931348623157E308, Double.MIN_VALUE};
+    private static final String[] NUMBERS_AS_TEXT = {"1", "0", "-1", "1.5", "1e3", " 1", "0x10", "NaN", "Infinity", "2147483648"};
+    private static final int[] LENGTHS = {0, 1, 2, 255, 256, 1024};
+
+    private final double validShare;
+    private final int maxStringLength;
+    //Идентификаторы существующих продуктов для PUT
+    private final LongSupplier existingIds;
+
+    @Builder
+    public PayloadGrammar(double validShare, int maxStringLength, LongSupplier existingIds) {
+        this.validShare = validShare;
+        this.maxStringLength = Math.max(1, maxStringLength);
+        this.existingIds = existingIds;
+    }
+
+    public FuzzCase generate(FuzzTarget target, long seed) {
+        SplittableRandom r = new SplittableRandom(seed);
+        boolean existingId = false;
+        Object id = null;
+        if (target == FuzzTarget.PUT && existingIds != null && r.nextDouble() < validShare) {
+            id = existingIds.getAsLong();
+            existingId = true;
+        } else if (r.nextDouble() >= validShare) {
+            id = any(r, 0);
+        }
+        ProductDouble payload = ProductDouble.builder()
+                .id(id)
+                .title(r.nextDouble() < validShare ? string(r, alphabet(r), 1 + r.nextInt(32)) : any(r, 0))
+                .price(r.nextDouble() < validShare ? 1 + r.nextInt(Integer.MAX_VALUE) : any(r, 0))
+                .categoryTitle(r.nextDouble() < validShare ? category(r) : any(r, 0))
+                .build();
+        return FuzzCase.builder()
+                .target(target)
+                .seed(seed)
+                .payload(payload)
+                .existingId(existingId)
+                .build();
+    }
+
+    //Значение случайной формы; null - поле отсутствует в теле
+    private Object any(SplittableRandom r, int depth) {
+        switch (r.nextInt(depth < 2 ? 12 : 10)) {
+            case 0:
+                return null;
+            case 1:
+                return INT_BOUNDARIES[r.nextInt(INT_BOUNDARIES.length)];
+            case 2:
+                return r.nextInt();
+            case 3:
+                return LONG_BOUNDARIES[r.nextInt(LONG_BOUNDARIES.length)];
+            case 4:
+                return new BigInteger(64 + r.nextInt(64), new Random(r.nextLong()));
+            case 5:
+                return r.nextBoolean() ? DECIMALS[r.nextInt(DECIMALS.length)] : r.nextDouble() * 1000;
+            case 6:
+                return r.nextBoolean();
+            case 7:
+                return NUMBERS_AS_TEXT[r.nextInt(NUMBERS_AS_TEXT.length)];
+            case 8:
+                return near(r);
+            case 9:
+                return string(r, alphabet(r), length(r));
+            case 10: {
+                List<Object> list = new ArrayList<>();
+                for (int i = r.nextInt(4); i > 0; i--) {
+                    list.add(any(r, depth + 1));
+                }
+                return list;
+            }
+            default:
+                return Collections.singletonMap(string(r, Alphabet.LATIN, 1 + r.nextInt(8)), any(r, depth + 1));
+        }
+    }
+
+    private int length(SplittableRandom r) {
+        int length = r.nextBoolean() ? LENGTHS[r.nextInt(LENGTHS.length)] : r.nextInt(64);
+        return Math.min(length, maxStringLength);
+    }
+
+    private static Alphabet alphabet(SplittableRandom r) {
+        Alphabet[] all = Alphabet.values();
+        return all[r.nextInt(all.length)];
+    }
+
+    private static String string(SplittableRandom r, Alphabet alphabet, int length) {
+        char[] out = new char[length];
+        for (int i = 0; i < length; i++) {
+            out[i] = alphabet.charAt(r.nextInt(alphabet.size()));
+        }
+        return new String(out);
+    }
+
+    private static String category(SplittableRandom r) {
+        CategoryType[] types = CategoryType.values();
+        return types[r.nextInt(types.length)].getName();
+    }
+
+    //Почти корректные строки: категория в верхнем регистре, с пробелом, нулевым символом или без последней буквы;
+    //символ вне BMP (суррогатная пара)
+    private static String near(SplittableRandom r) {
+        String name = category(r);
+        switch (r.nextInt(5)) {
+            case 0:
+                return name.toUpperCase();
+            case 1:
+                return " " + name;
+            case 2:
+                return name + "\u0000";
+            case 3:
+                return new String(Character.toChars(0x1F600 + r.nextInt(80)));
+            default:
+                return name.substring(0, Math.max(0, name.length() - 1));
+        }
+    }
+}
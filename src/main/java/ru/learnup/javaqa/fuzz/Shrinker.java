@@ -0,0 +1,138 @@
+package ru.learnup.javaqa.fuzz;
+
+import lombok.experimental.UtilityClass;
+import ru.learnup.javaqa.dto.ProductDouble;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+//Варианты упрощения тела для уменьшения найденного входа: одно поле заменяется более простым значением
+//(поле убирается, строка укорачивается, число приближается к 0 и 1, из массива и объекта убираются элементы).
+//Каждый вариант строго "легче" исходного по weight(), поэтому жадное уменьшение всегда заканчивается.
+//Варианты упорядочены по весу тела, первым пробуется самый маленький.
+@UtilityClass
+public class Shrinker {
+
+    private final List<Field> FIELDS = List.of(
+            new Field(ProductDouble::getId, ProductDouble::setId),
+            new Field(ProductDouble::getTitle, ProductDouble::setTitle),
+            new Field(ProductDouble::getPrice, ProductDouble::setPrice),
+            new Field(ProductDouble::getCategoryTitle, ProductDouble::setCategoryTitle));
+
+    public List<FuzzCase> candidates(FuzzCase c) {
+        List<FuzzCase> result = new ArrayList<>();
+        for (Field field : FIELDS) {
+            Object value = field.getter.apply(c.getPayload());
+            for (Object simpler : simpler(value)) {
+                ProductDouble payload = copy(c.getPayload());
+                field.setter.accept(payload, simpler);
+                //Идентификатор существующего продукта подставляется при повторе; замененный - уже обычное значение
+                boolean existingId = c.isExistingId() && Objects.equals(payload.getId(), c.getPayload().getId());
+                result.add(c.toBuilder().seed(0).payload(payload).existingId(existingId).build());
+            }
+        }
+        result.sort(Comparator.comparingLong(v -> weight(v.getPayload())));
+        return result;
+    }
+
+    //Размер входа: длина строк и чисел, число элементов; отсутствующее поле - 0
+    public long weight(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof ProductDouble) {
+            ProductDouble p = (ProductDouble) value;
+            return weight(p.getId()) + weight(p.getTitle()) + weight(p.getPrice()) + weight(p.getCategoryTitle());
+        }
+        if (value instanceof String) {
+            return 1 + ((String) value).length();
+        }
+        if (value instanceof List) {
+            long w = 2;
+            for (Object o : (List<?>) value) {
+                w += weight(o);
+            }
+            return w;
+        }
+        if (value instanceof Map) {
+            long w = 2;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                w += weight(e.getKey()) + weight(e.getValue());
+            }
+            return w;
+        }
+        return 1 + value.toString().length();
+    }
+
+    private List<Object> simpler(Object value) {
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        List<Object> options = new ArrayList<>();
+        options.add(null);
+        if (value instanceof String) {
+            String s = (String) value;
+            options.add("");
+            options.add(s.substring(0, s.length() / 2));
+            options.add(s.substring(s.length() / 2));
+            options.add(s.substring(0, s.length() - s.length() / 4));
+            options.add(s.substring(s.length() / 4));
+            if (s.length() > 1) {
+                options.add(s.substring(1));
+                options.add(s.substring(0, s.length() - 1));
+            }
+            options.add("a");
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            options.add(Collections.emptyList());
+            if (!list.isEmpty()) {
+                options.add(list.get(0));
+                options.add(new ArrayList<>(list.subList(1, list.size())));
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            options.add(Collections.emptyMap());
+            map.values().stream().findFirst().ifPresent(options::add);
+        } else if (value instanceof Number) {
+            options.add(0);
+            options.add(1);
+            if (value instanceof BigInteger) {
+                options.add(((BigInteger) value).shiftRight(1));
+                options.add(((BigInteger) value).longValue());
+            } else if (value instanceof Long || value instanceof Integer) {
+                options.add(((Number) value).longValue() / 2);
+            } else {
+                options.add((long) ((Number) value).doubleValue());
+            }
+        }
+        long limit = weight(value);
+        List<Object> lighter = new ArrayList<>();
+        for (Object o : options) {
+            if (weight(o) < limit && !lighter.contains(o)) {
+                lighter.add(o);
+            }
+        }
+        return lighter;
+    }
+
+    private ProductDouble copy(ProductDouble p) {
+        return new ProductDouble(p.getId(), p.getTitle(), p.getPrice(), p.getCategoryTitle());
+    }
+
+    private static class Field {
+        final Function<ProductDouble, Object> getter;
+        final BiConsumer<ProductDouble, Object> setter;
+
+        Field(Function<ProductDouble, Object> getter, BiConsumer<ProductDouble, Object> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ru.learnup.javaqa.generators;
+
+//Наборы символов для генерации строк, посчитанные один раз: символ выбирается одним обращением к таблице
+//вместо подбора случайных кодов с отбрасыванием неподходящих
+public enum Alphabet {
+    NUMERIC(range('0', '9')),
+    HEX(range('0', '9'), range('A', 'F')),
+    ALPHANUMERIC(range('0', '9'), range('A', 'Z'), range('a', 'z')),
+    LATIN(range('A', 'Z'), range('a', 'z')),
+    //А..я без Ё и ё
+    CYRILLIC(range(1040, 1103)),
+    //Часть расширения A унифицированных иероглифов ККЯ
+    HIEROGLYPH(range(18500, 19000)),
+    //Коды 125000..130000, приведенные к char, как в прежнем генераторе: U+E848..U+FBD0 (область частного
+    //использования и формы представления), а не дополнительные плоскости - на них стенд отвечает иначе
+    EXT_UNICODE(range(125000, 130000)),
+    //Те же символы, что asciiCheck и whitespaceCheck в тестах
+    PUNCTUATION("!;()\"'.,=+|&#$%*-/:<>?@[]\\^_~`}{".toCharArray()),
+    WHITESPACE(new char[]{'\t', '\n', '\u000b', '\f', '\r', 14, '\u001c', '\u001d', '\u001e', '\u001f'});
+
+    private final char[] chars;
+
+    Alphabet(char[]... ranges) {
+        int size = 0;
+        for (char[] r : ranges) {
+            size += r.length;
+        }
+        char[] all = new char[size];
+        int pos = 0;
+        for (char[] r : ranges) {
+            System.arraycopy(r, 0, all, pos, r.length);
+            pos += r.length;
+        }
+        this.chars = all;
+    }
+
+    public int size() {
+        return chars.length;
+    }
+
+    public char charAt(int index) {
+        return chars[index];
+    }
+
+    public boolean contains(char c) {
+        for (char x : chars) {
+            if (x == c) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    char[] table() {
+        return chars;
+    }
+
+    //Коды больше 0xFFFF обрезаются до char
+    private static char[] range(int from, int to) {
+        char[] r = new char[to - from + 1];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = (char) (from + i);
+        }
+        return r;
+    }
+}
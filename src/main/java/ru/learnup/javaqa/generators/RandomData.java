@@ -0,0 +1,115 @@
+package ru.learnup.javaqa.generators;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+//Случайные данные для тестов без общего состояния между потоками: у каждого потока свой SplittableRandom.
+//Воспроизводимость: у прогона одно зерно (seed), у теста - зерно из него и идентификатора теста (reseed(seedFor(id))),
+//поэтому данные теста не зависят от того, в каком потоке и после каких тестов он выполнился.
+@UtilityClass
+public class RandomData {
+
+    private volatile long runSeed = System.nanoTime();
+    private final ThreadLocal<SplittableRandom> RANDOM = ThreadLocal.withInitial(() -> new SplittableRandom(mix(runSeed, Thread.currentThread().getId())));
+
+    //Зерно прогона: повтор с -Drandom.seed=<seed> дает тем же тестам те же данные
+    public long seed() {
+        return runSeed;
+    }
+
+    public void seed(long seed) {
+        runSeed = seed;
+        RANDOM.set(new SplittableRandom(mix(seed, Thread.currentThread().getId())));
+    }
+
+    //Зерно для ключа (например, уникального идентификатора теста JUnit) в пределах прогона
+    public long seedFor(String key) {
+        return mix(runSeed, key.hashCode());
+    }
+
+    //Новая последовательность для текущего потока
+    public void reseed(long seed) {
+        RANDOM.set(new SplittableRandom(seed));
+    }
+
+    public SplittableRandom current() {
+        return RANDOM.get();
+    }
+
+    //1..Integer.MAX_VALUE
+    public int positiveInt() {
+        return RANDOM.get().nextInt(Integer.MAX_VALUE) + 1;
+    }
+
+    public int nextInt(int from, int to) {
+        return RANDOM.get().nextInt(from, to);
+    }
+
+    public String string(Alphabet alphabet, int length) {
+        char[] out = new char[length];
+        fill(RANDOM.get(), alphabet.table(), out, 0, length);
+        return new String(out);
+    }
+
+    //Пакетная генерация: один генератор и один буфер на все строки
+    public String[] strings(Alphabet alphabet, int length, int count) {
+        SplittableRandom random = RANDOM.get();
+        char[] table = alphabet.table();
+        char[] buffer = new char[length];
+        String[] out = new String[count];
+        for (int i = 0; i < count; i++) {
+            fill(random, table, buffer, 0, length);
+            out[i] = new String(buffer);
+        }
+        return out;
+    }
+
+    //Бесконечный поток строк со своим генератором, отделенным от генератора текущего потока
+    public Stream<String> stream(Alphabet alphabet, int length) {
+        SplittableRandom random = RANDOM.get().split();
+        char[] table = alphabet.table();
+        return Stream.generate(() -> {
+            char[] out = new char[length];
+            synchronized (random) {
+                fill(random, table, out, 0, length);
+            }
+            return new String(out);
+        });
+    }
+
+    public void fill(Alphabet alphabet, char[] dest, int offset, int length) {
+        fill(RANDOM.get(), alphabet.table(), dest, offset, length);
+    }
+
+    private void fill(SplittableRandom random, char[] table, char[] dest, int offset, int length) {
+        int bound = table.length;
+        //Для наборов из степени двойки символов индекс - младшие биты, по несколько символов из одного nextLong
+        if ((bound & (bound - 1)) == 0) {
+            int bits = Integer.numberOfTrailingZeros(bound);
+            int perLong = bits == 0 ? 64 : 64 / bits;
+            int mask = bound - 1;
+            int i = 0;
+            while (i < length) {
+                long r = random.nextLong();
+                for (int k = 0; k < perLong && i < length; k++, i++) {
+                    dest[offset + i] = table[(int) r & mask];
+                    r >>>= bits;
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            dest[offset + i] = table[random.nextInt(bound)];
+        }
+    }
+
+    //Перемешивание SplitMix64: близкие ключи дают далекие зерна
+    private long mix(long seed, long key) {
+        long z = seed + key * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
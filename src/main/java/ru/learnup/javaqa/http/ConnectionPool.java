@@ -0,0 +1,136 @@
+package ru.learnup.javaqa.http;
+
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import lombok.Builder;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+//Общий ограниченный пул keep-alive соединений для RestAssured.
+//По умолчанию RestAssured создает новый HttpClient (и новое соединение) на каждый запрос;
+//фабрика пула всегда отдает один и тот же потокобезопасный клиент.
+//RestAssured 4.x принимает только AbstractHttpClient, поэтому используется устаревший API HttpClient 4.
+@SuppressWarnings("deprecation")
+public class ConnectionPool implements HttpClientConfig.HttpClientFactory, AutoCloseable {
+
+    private final PoolingClientConnectionManager manager;
+    private final DefaultHttpClient client;
+    private final ScheduledExecutorService evictor;
+    private final LongAdder opened = new LongAdder();
+
+    @Builder
+    public ConnectionPool(int maxTotal, int maxPerRoute, int connectTimeout, int readTimeout, int idleTimeout,
+                          boolean streaming) {
+        manager = new PoolingClientConnectionManager(SchemeRegistryFactory.createDefault()) {
+            @Override
+            protected ClientConnectionOperator createConnectionOperator(SchemeRegistry schemes) {
+                return new CountingConnectionOperator(schemes);
+            }
+        };
+        manager.setMaxTotal(maxTotal);
+        manager.setDefaultMaxPerRoute(maxPerRoute);
+
+        client = new DefaultHttpClient(manager);
+        //Потоковый пул (streaming=true) отдает тело как есть: вызывающий обязан дочитать и закрыть поток.
+        //RestAssured не дочитывает тело, если его не запросили (DELETE, проверка только статуса), и соединение
+        //остается занятым. Буферизованная сущность не потоковая - клиент возвращает соединение в пул сразу.
+        if (!streaming) {
+            client.addResponseInterceptor((response, context) -> {
+                HttpEntity entity = response.getEntity();
+                if (entity != null && entity.isStreaming()) {
+                    response.setEntity(new BufferedHttpEntity(entity));
+                }
+            });
+        }
+        HttpConnectionParams.setConnectionTimeout(client.getParams(), connectTimeout);
+        HttpConnectionParams.setSoTimeout(client.getParams(), readTimeout);
+
+        //Вытеснение простаивающих соединений, пока сервер не закрыл их сам
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1, idleTimeout / 2);
+        evictor.scheduleWithFixedDelay(() -> {
+            manager.closeExpiredConnections();
+            manager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public HttpClient createHttpClient() {
+        return client;
+    }
+
+    public RestAssuredConfig config() {
+        return RestAssuredConfig.config()
+                .httpClient(HttpClientConfig.httpClientConfig().httpClientFactory(this));
+    }
+
+    public PoolStats stats() {
+        return manager.getTotalStats();
+    }
+
+    //Сколько сокетов было открыто за время жизни пула
+    public long getOpenedConnections() {
+        return opened.sum();
+    }
+
+    public String summary() {
+        PoolStats stats = stats();
+        return String.format("connections opened=%d leased=%d available=%d pending=%d max=%d%n",
+                getOpenedConnections(), stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax());
+    }
+
+    public void writeSummary(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, summary().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        manager.shutdown();
+    }
+
+    private class CountingConnectionOperator extends DefaultClientConnectionOperator {
+
+        CountingConnectionOperator(SchemeRegistry schemes) {
+            super(schemes);
+        }
+
+        @Override
+        public void openConnection(OperatedClientConnection conn, HttpHost target,
+                                   InetAddress local, HttpContext context,
+                                   HttpParams params) throws IOException {
+            super.openConnection(conn, target, local, context, params);
+            opened.increment();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.learnup.javaqa.load;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+//Параметры нагрузочного прогона.
+//rate > 0 - открытая модель: запросы подаются по расписанию независимо от ответов сервера;
+//rate == 0 - закрытая модель: concurrency потоков шлют запросы друг за другом.
+@Data
+@Builder
+public class LoadConfig {
+    private String baseUrl;
+
+    @Builder.Default
+    private double rate = 100;
+
+    @Builder.Default
+    private int concurrency = 16;
+
+    @Builder.Default
+    private Duration duration = Duration.ofSeconds(30);
+
+    //Открытая модель: запросов, ожидающих свободного потока; сверх этого запрос не ставится в очередь, а считается
+    //отброшенным (LoadReport.getDropped) - перегруженный сервер дает видимый отказ, а не рост памяти
+    @Builder.Default
+    private int maxQueued = 1000;
+
+    //Таймауты соединения и чтения, мс
+    @Builder.Default
+    private int connectTimeout = 5000;
+
+    @Builder.Default
+    private int readTimeout = 30000;
+
+    //Доли операций в смеси; операции, которым нужен существующий продукт, при пустом пуле заменяются на CREATE
+    @Builder.Default
+    private Map<Operation, Integer> weights = defaultWeights();
+
+    public static Map<Operation, Integer> defaultWeights() {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        weights.put(Operation.CREATE, 3);
+        weights.put(Operation.UPDATE, 2);
+        weights.put(Operation.GET_BY_ID, 4);
+        weights.put(Operation.GET_ALL, 1);
+        weights.put(Operation.DELETE, 2);
+        return weights;
+    }
+}
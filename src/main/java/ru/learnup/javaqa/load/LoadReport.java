@@ -0,0 +1,94 @@
+package ru.learnup.javaqa.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+//Итоги нагрузочного прогона по каждой операции: пропускная способность, доля ошибок, перцентили задержки
+public class LoadReport {
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final LongAdder dropped = new LongAdder();
+    private volatile long elapsedNanos;
+
+    LoadReport() {
+        for (Operation op : Operation.values()) {
+            //Задержки в микросекундах, 3 значащих разряда
+            latencies.put(op, new ConcurrentHistogram(3));
+            errors.put(op, new LongAdder());
+        }
+    }
+
+    void record(Operation op, long latencyNanos, boolean ok) {
+        latencies.get(op).recordValue(Math.max(0, latencyNanos / 1000));
+        if (!ok) {
+            errors.get(op).increment();
+        }
+    }
+
+    //Запрос открытой модели не отправлен: очередь перед потоками заполнена
+    void drop() {
+        dropped.increment();
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getCount(Operation op) {
+        return latencies.get(op).getTotalCount();
+    }
+
+    public long getErrors(Operation op) {
+        return errors.get(op).sum();
+    }
+
+    public long getTotalCount() {
+        return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    public long getTotalErrors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getTotalCount() * 1e9 / elapsedNanos;
+    }
+
+    public Histogram getLatency(Operation op) {
+        return latencies.get(op);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        double seconds = elapsedNanos / 1e9;
+        sb.append(String.format("elapsed %.1f s, %d requests, %.1f req/s, %d errors, %d dropped%n",
+                seconds, getTotalCount(), getThroughput(), getTotalErrors(), getDropped()));
+        sb.append(String.format("%-24s %8s %9s %7s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "req/s", "err%", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (Operation op : Operation.values()) {
+            Histogram h = latencies.get(op);
+            long count = h.getTotalCount();
+            if (count == 0) {
+                continue;
+            }
+            sb.append(String.format("%-24s %8d %9.1f %7.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    op, count, count / seconds, 100.0 * getErrors(op) / count,
+                    h.getValueAtPercentile(50) / 1000.0,
+                    h.getValueAtPercentile(90) / 1000.0,
+                    h.getValueAtPercentile(99) / 1000.0,
+                    h.getValueAtPercentile(99.9) / 1000.0,
+                    h.getMaxValue() / 1000.0));
+        }
+        return sb.toString();
+    }
+}
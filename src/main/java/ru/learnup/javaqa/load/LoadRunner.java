@@ -0,0 +1,154 @@
+package ru.learnup.javaqa.load;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.response.Response;
+import ru.learnup.javaqa.dto.DtoMapper;
+import ru.learnup.javaqa.dto.Product;
+import ru.learnup.javaqa.http.ConnectionPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+//Нагрузочный режим для контроллера продуктов: те же запросы, что и в функциональных тестах, но по расписанию.
+//В открытой модели задержка считается от запланированного момента отправки, а не от фактического,
+//поэтому очередь перед перегруженным сервером попадает в перцентили (нет coordinated omission).
+public class LoadRunner {
+
+    private final LoadConfig config;
+    private final ConnectionPool pool;
+    private final ProductRequests requests;
+    private final Operation[] mix;
+    private final LoadReport report = new LoadReport();
+
+    //Созданные в прогоне продукты: удаляются с головы, читаются и обновляются с хвоста.
+    //Запрос забирает идентификатор из очереди и возвращает после ответа: GET и PUT не идут к продукту,
+    //который в это время удаляется, и 404 от такой гонки не попадают в ошибки
+    private final ConcurrentLinkedDeque<Long> liveIds = new ConcurrentLinkedDeque<>();
+
+    public LoadRunner(LoadConfig config) {
+        this.config = config;
+        //Соединений в пуле столько же, сколько рабочих потоков: каждый поток держит свой keep-alive сокет
+        this.pool = ConnectionPool.builder()
+                .maxTotal(config.getConcurrency())
+                .maxPerRoute(config.getConcurrency())
+                .connectTimeout(config.getConnectTimeout())
+                .readTimeout(config.getReadTimeout())
+                .idleTimeout(config.getReadTimeout())
+                .build();
+        this.requests = new ProductRequests(new RequestSpecBuilder()
+                .setBaseUri(config.getBaseUrl())
+                .setConfig(pool.config().objectMapperConfig(DtoMapper.INSTANCE.config()))
+                .build(), "load-");
+        this.mix = buildMix(config.getWeights());
+    }
+
+    public LoadReport run() throws InterruptedException {
+        ExecutorService workers = new ThreadPoolExecutor(config.getConcurrency(), config.getConcurrency(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, config.getMaxQueued())));
+        long start = System.nanoTime();
+        long end = start + config.getDuration().toNanos();
+        try {
+            if (config.getRate() > 0) {
+                runOpenLoop(workers, start, end);
+            } else {
+                runClosedLoop(workers, end);
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+            report.finish(System.nanoTime() - start);
+            cleanup();
+            pool.close();
+        }
+        return report;
+    }
+
+    private void runOpenLoop(ExecutorService workers, long start, long end) {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / config.getRate());
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                return;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            try {
+                workers.execute(() -> execute(intended));
+            } catch (RejectedExecutionException e) {
+                report.drop();
+            }
+        }
+    }
+
+    private void runClosedLoop(ExecutorService workers, long end) {
+        for (int i = 0; i < config.getConcurrency(); i++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < end) {
+                    execute(System.nanoTime());
+                }
+            });
+        }
+    }
+
+    private void execute(long intendedStart) {
+        Operation op = mix[ThreadLocalRandom.current().nextInt(mix.length)];
+        Long id = null;
+        if (op == Operation.DELETE) {
+            id = liveIds.pollFirst();
+        } else if (op == Operation.UPDATE || op == Operation.GET_BY_ID) {
+            id = liveIds.pollLast();
+        }
+        if (id == null && op.isProductRequired()) {
+            op = Operation.CREATE;
+        }
+
+        boolean ok;
+        try {
+            Response res = requests.send(op, id);
+            ok = res.statusCode() == op.getExpectedStatus();
+            if (ok && op == Operation.CREATE) {
+                liveIds.addLast(res.as(Product.class).getId());
+            }
+        } catch (RuntimeException e) {
+            ok = false;
+        }
+        if (id != null && op != Operation.DELETE) {
+            liveIds.addLast(id);
+        }
+        report.record(op, System.nanoTime() - intendedStart, ok);
+    }
+
+    //Удаление продуктов, оставшихся после прогона; в отчет не попадает
+    private void cleanup() {
+        Long id;
+        while ((id = liveIds.pollFirst()) != null) {
+            try {
+                requests.send(Operation.DELETE, id);
+            } catch (RuntimeException ignored) {}
+        }
+    }
+
+    private static Operation[] buildMix(Map<Operation, Integer> weights) {
+        List<Operation> table = new ArrayList<>();
+        weights.forEach((op, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                table.add(op);
+            }
+        });
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix is empty");
+        }
+        return table.toArray(new Operation[0]);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.learnup.javaqa.load;
+
+import lombok.Getter;
+
+import static ru.learnup.javaqa.Endpoints.CATEGORY_ID_ENDPOINT;
+import static ru.learnup.javaqa.Endpoints.PRODUCT_ENDPOINT;
+import static ru.learnup.javaqa.Endpoints.PRODUCT_ID_ENDPOINT;
+
+//Виды запросов к контроллерам продуктов и категорий, которые умеют подавать нагрузочный режим и сценарии
+@Getter
+public enum Operation {
+    CREATE("POST", PRODUCT_ENDPOINT, 201, false),
+    UPDATE("PUT", PRODUCT_ENDPOINT, 200, true),
+    GET_BY_ID("GET", PRODUCT_ID_ENDPOINT, 200, true),
+    GET_ALL("GET", PRODUCT_ENDPOINT, 200, false),
+    DELETE("DELETE", PRODUCT_ID_ENDPOINT, 200, true),
+    GET_CATEGORY("GET", CATEGORY_ID_ENDPOINT, 200, false);
+
+    private final String method;
+    private final String endpoint;
+    private final int expectedStatus;
+    //Нужен идентификатор существующего продукта
+    private final boolean productRequired;
+
+    Operation(String method, String endpoint, int expectedStatus, boolean productRequired) {
+        this.method = method;
+        this.endpoint = endpoint;
+        this.expectedStatus = expectedStatus;
+        this.productRequired = productRequired;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + endpoint;
+    }
+}
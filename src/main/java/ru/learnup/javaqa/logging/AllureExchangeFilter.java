@@ -0,0 +1,288 @@
+package ru.learnup.javaqa.logging;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Attachment;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+//Замена AllureRestAssured для больших прогонов. Каждый запрос - короткий шаг "метод URI -> статус" без вложений;
+//полный обмен (заголовки и тела, обрезанные до maxBodyChars) прикладывается сразу (FULL) или только к упавшему тесту
+//(ON_FAILURE, из буфера потока - см. attachBuffered()). Одинаковые вложения записываются в allure-results один раз:
+//повторные ссылаются на уже записанный файл. Не больше maxPerTest обменов на тест и maxTotalBytes на прогон.
+//С capture все обмены прогона (и вне тестов) дописываются в MappedExchangeLog, а в режиме ON_FAILURE
+//упавший тест получает вложения из журнала по своему идентификатору вместо буфера потока.
+//Журнал не бесплатен: тело ответа читается целиком и копируется в сегмент, а строка запроса и заголовки
+//кодируются в UTF-8 на каждом обмене. Тело ответа пишется байтами как получено - декодирование, обрезка
+//и текст вложения только для упавших тестов.
+public class AllureExchangeFilter implements OrderedFilter {
+
+    private static final int MAX_NAME = 200;
+    //Идентификатор в журнале для запросов вне теста (фоновые потоки, @BeforeAll)
+    public static final String NO_TEST = "-";
+    //Меняется в каждом ответе и мешал бы находить одинаковые вложения
+    private static final String DATE = "Date";
+
+    private static final ThreadLocal<Deque<Exchange>> BUFFER = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ThreadLocal<int[]> ATTACHED_IN_TEST = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final LogMode mode;
+    private final int maxBodyChars;
+    private final int maxPerTest;
+    private final long maxTotalBytes;
+    private final MappedExchangeLog capture;
+
+    //SHA-256 содержимого -> имя файла вложения в allure-results
+    private final ConcurrentMap<String, String> sources = new ConcurrentHashMap<>();
+    private final AtomicLong writtenBytes = new AtomicLong();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    @Builder
+    public AllureExchangeFilter(LogMode mode, int maxBodyChars, int maxPerTest, long maxTotalBytes,
+                                MappedExchangeLog capture) {
+        this.mode = mode;
+        this.maxBodyChars = maxBodyChars;
+        this.maxPerTest = maxPerTest;
+        this.maxTotalBytes = maxTotalBytes;
+        this.capture = capture;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response res = ctx.next(requestSpec, responseSpec);
+        Optional<String> test = Allure.getLifecycle().getCurrentTestCase();
+        if (capture == null && (mode == LogMode.OFF || !test.isPresent())) {
+            return res;
+        }
+        if (capture != null) {
+            capture(test.orElse(NO_TEST), requestSpec, res);
+        }
+        if (mode == LogMode.OFF || !test.isPresent()) {
+            return res;
+        }
+        Object body = requestSpec.getBody();
+        Exchange exchange = new Exchange(requestSpec.getMethod() + " " + requestSpec.getURI(),
+                requestSpec.getHeaders(), body == null ? null : body.toString(),
+                res.statusLine(), res.getHeaders(), res.asString());
+        String name = requestSpec.getMethod() + " " + requestSpec.getURI() + " -> " + res.statusCode()
+                + " (" + res.getTimeIn(TimeUnit.MILLISECONDS) + " ms)";
+        Allure.step(shorten(name));
+
+        if (mode == LogMode.FULL) {
+            attach(exchange);
+        } else if (capture == null) {
+            Deque<Exchange> buffer = BUFFER.get();
+            if (buffer.size() >= maxPerTest) {
+                buffer.removeFirst();
+            }
+            buffer.addLast(exchange);
+        }
+        return res;
+    }
+
+    @Override
+    public int getOrder() {
+        return DEFAULT_PRECEDENCE;
+    }
+
+    //Обмены текущего потока - во вложения текущего теста (для упавшего теста в режиме ON_FAILURE);
+    //с capture - последние maxPerTest обменов теста из журнала
+    public void attachBuffered() {
+        if (capture != null) {
+            Allure.getLifecycle().getCurrentTestCase().ifPresent(id -> {
+                List<MappedExchangeLog.Entry> entries = capture.find(id);
+                for (MappedExchangeLog.Entry entry : entries.subList(Math.max(0, entries.size() - maxPerTest), entries.size())) {
+                    attachCaptured(capture.read(entry));
+                }
+            });
+            return;
+        }
+        Deque<Exchange> buffer = BUFFER.get();
+        for (Exchange e : buffer) {
+            attach(e);
+        }
+        buffer.clear();
+    }
+
+    //Начало и конец теста: буфер и счетчик вложений потока обнуляются
+    public static void clear() {
+        BUFFER.get().clear();
+        ATTACHED_IN_TEST.get()[0] = 0;
+    }
+
+    public String summary() {
+        String summary = String.format("allure attachments written=%d (%.1f MB) deduplicated=%d dropped=%d%n",
+                written.sum(), writtenBytes.get() / 1048576.0, deduplicated.sum(), dropped.sum());
+        if (capture != null) {
+            summary += String.format("captured exchanges=%d (%.1f MB in %d segments)%n",
+                    capture.getCount(), capture.getSize() / 1048576.0, capture.getSegmentCount());
+        }
+        return summary;
+    }
+
+    public void writeSummary(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, summary().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void attach(Exchange e) {
+        attachExchange(requestText(e), responseText(e));
+    }
+
+    private void attachExchange(String request, String response) {
+        int[] attached = ATTACHED_IN_TEST.get();
+        if (attached[0] >= maxPerTest) {
+            dropped.increment();
+            return;
+        }
+        attached[0]++;
+        attach(shorten("Request " + firstLine(request)), request);
+        attach("Response " + firstLine(response), response);
+    }
+
+    private String requestText(Exchange e) {
+        return e.request + "\n" + headers(e.requestHeaders) + "\n" + truncate(e.requestBody);
+    }
+
+    private String responseText(Exchange e) {
+        return e.statusLine + "\n" + headers(e.responseHeaders) + "\n" + truncate(e.responseBody);
+    }
+
+    //Запись журнала: int длина запроса, запрос (UTF-8, тело обрезано), int длина строки статуса и заголовков ответа,
+    //они же (UTF-8), тело ответа как получено
+    private void capture(String testId, FilterableRequestSpecification requestSpec, Response res) {
+        Object body = requestSpec.getBody();
+        byte[] request = (requestSpec.getMethod() + " " + requestSpec.getURI() + "\n" + headers(requestSpec.getHeaders())
+                + "\n" + truncate(body == null ? null : body.toString())).getBytes(StandardCharsets.UTF_8);
+        byte[] head = (res.statusLine() + "\n" + headers(res.getHeaders())).getBytes(StandardCharsets.UTF_8);
+        capture.append(testId, requestSpec.getMethod() + " " + requestSpec.getUserDefinedPath(),
+                length(request), request, length(head), head, res.asByteArray());
+    }
+
+    private static byte[] length(byte[] bytes) {
+        return ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array();
+    }
+
+    private void attachCaptured(byte[] record) {
+        ByteBuffer buf = ByteBuffer.wrap(record);
+        int requestLength = buf.getInt();
+        String request = new String(record, buf.position(), requestLength, StandardCharsets.UTF_8);
+        buf.position(buf.position() + requestLength);
+        int headLength = buf.getInt();
+        String head = new String(record, buf.position(), headLength, StandardCharsets.UTF_8);
+        buf.position(buf.position() + headLength);
+        String body = new String(record, buf.position(), buf.remaining(), StandardCharsets.UTF_8);
+        attachExchange(request, head + "\n" + truncate(body));
+    }
+
+    private static String firstLine(String text) {
+        int end = text.indexOf('\n');
+        return end < 0 ? text : text.substring(0, end);
+    }
+
+    private void attach(String name, String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String hash = sha256(bytes);
+        String source = sources.get(hash);
+        if (source != null) {
+            deduplicated.increment();
+        } else {
+            if (writtenBytes.addAndGet(bytes.length) > maxTotalBytes) {
+                writtenBytes.addAndGet(-bytes.length);
+                dropped.increment();
+                return;
+            }
+            String fresh = UUID.randomUUID() + "-attachment.txt";
+            source = sources.putIfAbsent(hash, fresh);
+            if (source == null) {
+                source = fresh;
+                lifecycle.writeAttachment(source, new ByteArrayInputStream(bytes));
+                written.increment();
+            } else {
+                //Тот же текст только что записал другой поток
+                writtenBytes.addAndGet(-bytes.length);
+                deduplicated.increment();
+            }
+        }
+        Attachment attachment = new Attachment().setName(name).setType("text/plain").setSource(source);
+        lifecycle.updateTestCase(r -> r.getAttachments().add(attachment));
+    }
+
+    //Имена шагов и вложений: URI с длинными идентификаторами не раздувает результаты
+    private static String shorten(String name) {
+        return name.length() > MAX_NAME ? name.substring(0, MAX_NAME) + "..." : name;
+    }
+
+    private String truncate(String body) {
+        if (body == null || body.isEmpty()) {
+            return "<none>";
+        }
+        return body.length() <= maxBodyChars ? body
+                : body.substring(0, maxBodyChars) + "\n... [truncated, " + body.length() + " chars total]";
+    }
+
+    private static String headers(Headers headers) {
+        StringBuilder sb = new StringBuilder();
+        for (Header h : headers) {
+            if (!DATE.equalsIgnoreCase(h.getName())) {
+                sb.append(h.getName()).append(": ").append(h.getValue()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Exchange {
+        final String request;
+        final Headers requestHeaders;
+        final String requestBody;
+        final String statusLine;
+        final Headers responseHeaders;
+        final String responseBody;
+    }
+}
@@ -0,0 +1,83 @@
+package ru.learnup.javaqa.logging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import lombok.AllArgsConstructor;
+import ru.learnup.javaqa.dto.DtoMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Фильтр для режима ON_FAILURE: сохраняет сырые запросы и ответы текущего потока без форматирования.
+//Форматирование (и разбор JSON) выполняется только в drain(), то есть только для упавших тестов.
+public class BufferingLogFilter implements OrderedFilter {
+
+    private static final ThreadLocal<List<Exchange>> BUFFER = ThreadLocal.withInitial(ArrayList::new);
+    private static final ObjectMapper MAPPER = DtoMapper.INSTANCE.mapper();
+    private static final ObjectWriter PRETTY = MAPPER.writerWithDefaultPrettyPrinter();
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response res = ctx.next(requestSpec, responseSpec);
+        Object body = requestSpec.getBody();
+        BUFFER.get().add(new Exchange(requestSpec.getMethod(), requestSpec.getURI(),
+                requestSpec.getHeaders().toString(), body == null ? null : body.toString(),
+                res.statusLine(), res.getHeaders().toString(), res.asString()));
+        return res;
+    }
+
+    @Override
+    public int getOrder() {
+        return DEFAULT_PRECEDENCE;
+    }
+
+    public static void clear() {
+        BUFFER.get().clear();
+    }
+
+    //Отформатированные обмены текущего потока; буфер очищается
+    public static String drain() {
+        List<Exchange> exchanges = BUFFER.get();
+        StringBuilder sb = new StringBuilder();
+        for (Exchange e : exchanges) {
+            sb.append("Request method:\t").append(e.method).append('\n')
+                    .append("Request URI:\t").append(e.uri).append('\n')
+                    .append("Headers:\t").append(e.requestHeaders).append('\n')
+                    .append("Body:\n").append(pretty(e.requestBody)).append("\n\n")
+                    .append(e.statusLine).append('\n')
+                    .append(e.responseHeaders).append('\n')
+                    .append('\n').append(pretty(e.responseBody)).append("\n\n");
+        }
+        exchanges.clear();
+        return sb.toString();
+    }
+
+    private static String pretty(String body) {
+        if (body == null || body.isEmpty()) {
+            return "<none>";
+        }
+        try {
+            return PRETTY.writeValueAsString(MAPPER.readTree(body));
+        } catch (Exception e) {
+            return body;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Exchange {
+        final String method;
+        final String uri;
+        final String requestHeaders;
+        final String requestBody;
+        final String statusLine;
+        final String responseHeaders;
+        final String responseBody;
+    }
+}
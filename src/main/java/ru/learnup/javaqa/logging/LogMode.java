@@ -0,0 +1,17 @@
+package ru.learnup.javaqa.logging;
+
+import java.util.Locale;
+
+//Подробность логирования REST-вызовов
+public enum LogMode {
+    //Каждый запрос и ответ печатается сразу, ответ - с форматированием JSON
+    FULL,
+    //Обмены копятся в памяти потока и печатаются, только если тест упал
+    ON_FAILURE,
+    //Без логирования: для больших и нагрузочных прогонов
+    OFF;
+
+    public static LogMode of(String value) {
+        return value == null || value.isEmpty() ? FULL : valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,283 @@
+package ru.learnup.javaqa.logging;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Журнал обменов для прогонов с тысячами запросов: вместо отдельного файла на каждое вложение все обмены
+//дописываются в сегменты по segmentSize байт, отображенные в память (segment-000001.seg, ...).
+//Запись без блокировок: поток резервирует место сдвигом счетчика и копирует байты в отображение,
+//блокировка берется только при переходе на следующий сегмент. Запись в сегменте:
+//  int длина записи, short + UTF-8 идентификатор теста, short + UTF-8 эндпоинт, содержимое; длина 0 - конец сегмента.
+//Индекс по тесту и эндпоинту - в памяти, в конце прогона он же пишется в index.tsv; open() восстанавливает его
+//чтением сегментов, так что журнал читается и после аварийно прерванного прогона.
+public class MappedExchangeLog implements AutoCloseable {
+
+    public static final String INDEX = "index.tsv";
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".seg";
+    private static final int HEADER = Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean writable;
+
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private volatile Segment current;
+    private volatile boolean closed;
+
+    //В порядке записи внутри теста и эндпоинта
+    private final ConcurrentMap<String, Queue<Entry>> byTest = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Queue<Entry>> byEndpoint = new ConcurrentHashMap<>();
+
+    //Новый журнал: сегменты прошлого прогона в directory удаляются
+    @Builder
+    public MappedExchangeLog(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.writable = true;
+        Files.createDirectories(directory);
+        for (Path old : list(directory)) {
+            Files.delete(old);
+        }
+        Files.deleteIfExists(directory.resolve(INDEX));
+        current = map(1, segmentSize);
+    }
+
+    private MappedExchangeLog(Path directory) {
+        this.directory = directory;
+        this.segmentSize = 0;
+        this.writable = false;
+        this.closed = true;
+    }
+
+    //Чтение записанного журнала, например для выгрузки обменов одного теста после прогона
+    public static MappedExchangeLog open(Path directory) throws IOException {
+        MappedExchangeLog log = new MappedExchangeLog(directory);
+        for (Path file : list(directory)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                Segment segment = new Segment(segmentNumber(file),
+                        channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                log.segments.add(segment);
+                log.scan(segment);
+            }
+        }
+        return log;
+    }
+
+    //Запись обмена; содержимое - части подряд, чтобы не собирать их в один массив. null - журнал закрыт
+    public Entry append(String testId, String endpoint, byte[]... content) {
+        byte[] test = utf8(testId);
+        byte[] point = utf8(endpoint);
+        int length = 0;
+        for (byte[] part : content) {
+            length += part.length;
+        }
+        int size = HEADER + Short.BYTES + test.length + Short.BYTES + point.length + length;
+        while (!closed) {
+            Segment segment = current;
+            int offset = segment.reserve(size);
+            if (offset < 0) {
+                roll(segment, size);
+                continue;
+            }
+            ByteBuffer buf = segment.buffer.duplicate();
+            buf.position(offset + HEADER);
+            buf.putShort((short) test.length).put(test);
+            buf.putShort((short) point.length).put(point);
+            for (byte[] part : content) {
+                buf.put(part);
+            }
+            //Длина пишется последней: при чтении сегмента незаконченная запись выглядит как его конец
+            segment.buffer.putInt(offset, size);
+            Entry entry = new Entry(testId, endpoint, segment.number, offset + size - length, length);
+            index(entry);
+            return entry;
+        }
+        return null;
+    }
+
+    public List<Entry> find(String testId) {
+        Queue<Entry> entries = byTest.get(testId);
+        return entries == null ? Collections.emptyList() : new ArrayList<>(entries);
+    }
+
+    public List<Entry> find(String testId, String endpoint) {
+        List<Entry> found = new ArrayList<>();
+        for (Entry e : find(testId)) {
+            if (e.endpoint.equals(endpoint)) {
+                found.add(e);
+            }
+        }
+        return found;
+    }
+
+    public List<Entry> findByEndpoint(String endpoint) {
+        Queue<Entry> entries = byEndpoint.get(endpoint);
+        return entries == null ? Collections.emptyList() : new ArrayList<>(entries);
+    }
+
+    public byte[] read(Entry entry) {
+        ByteBuffer buf = segments.get(entry.segment - 1).buffer.duplicate();
+        buf.position(entry.offset);
+        byte[] content = new byte[entry.length];
+        buf.get(content);
+        return content;
+    }
+
+    public long getCount() {
+        return byTest.values().stream().mapToLong(Queue::size).sum();
+    }
+
+    //Занято в сегментах, байт
+    public long getSize() {
+        return segments.stream().mapToLong(s -> Math.min(s.position.get(), s.buffer.capacity())).sum();
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    //Сброс сегментов на диск и index.tsv; хвост последнего сегмента - нули, в разреженном файле места не занимает
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed || !writable) {
+            return;
+        }
+        closed = true;
+        for (Segment s : segments) {
+            s.buffer.force();
+        }
+        try (Writer out = Files.newBufferedWriter(directory.resolve(INDEX), StandardCharsets.UTF_8)) {
+            out.write("test\tendpoint\tsegment\toffset\tlength\n");
+            for (Queue<Entry> entries : byTest.values()) {
+                for (Entry e : entries) {
+                    out.write(e.testId + "\t" + e.endpoint + "\t" + e.segment + "\t" + e.offset + "\t" + e.length + "\n");
+                }
+            }
+        }
+    }
+
+    private synchronized void roll(Segment full, int size) {
+        if (current != full || closed) {
+            return;
+        }
+        try {
+            current = map(full.number + 1, Math.max(segmentSize, size));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create exchange log segment in " + directory, e);
+        }
+    }
+
+    private Segment map(int number, int size) throws IOException {
+        Path file = directory.resolve(String.format("%s%06d%s", PREFIX, number, SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            //Отображение остается действительным после закрытия канала
+            Segment segment = new Segment(number, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            segments.add(segment);
+            return segment;
+        }
+    }
+
+    private void index(Entry entry) {
+        byTest.computeIfAbsent(entry.testId, k -> new ConcurrentLinkedQueue<>()).add(entry);
+        byEndpoint.computeIfAbsent(entry.endpoint, k -> new ConcurrentLinkedQueue<>()).add(entry);
+    }
+
+    private void scan(Segment segment) {
+        ByteBuffer buf = segment.buffer.duplicate();
+        int offset = 0;
+        while (offset + HEADER <= buf.limit()) {
+            int size = buf.getInt(offset);
+            if (size <= 0 || offset + size > buf.limit()) {
+                return;
+            }
+            buf.position(offset + HEADER);
+            String testId = string(buf);
+            String endpoint = string(buf);
+            index(new Entry(testId, endpoint, segment.number, buf.position(), offset + size - buf.position()));
+            offset += size;
+        }
+    }
+
+    private static String string(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getShort() & 0xFFFF];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        return bytes.length <= 0xFFFF ? bytes : Arrays.copyOf(bytes, 0xFFFF);
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        TreeSet<Path> files = new TreeSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        return new ArrayList<>(files);
+    }
+
+    private static int segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    //Положение содержимого обмена в журнале
+    @Getter
+    public static class Entry {
+        private final String testId;
+        private final String endpoint;
+        private final int segment;
+        private final int offset;
+        private final int length;
+
+        Entry(String testId, String endpoint, int segment, int offset, int length) {
+            this.testId = testId;
+            this.endpoint = endpoint;
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static class Segment {
+        final int number;
+        final MappedByteBuffer buffer;
+        final AtomicInteger position = new AtomicInteger();
+
+        Segment(int number, MappedByteBuffer buffer) {
+            this.number = number;
+            this.buffer = buffer;
+        }
+
+        //Смещение зарезервированного места или -1, если запись не помещается
+        int reserve(int size) {
+            int offset = position.getAndAdd(size);
+            return offset >= 0 && offset + size <= buffer.capacity() ? offset : -1;
+        }
+    }
+}
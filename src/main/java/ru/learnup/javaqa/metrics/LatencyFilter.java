@@ -0,0 +1,42 @@
+package ru.learnup.javaqa.metrics;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+//Фильтр RestAssured, замеряющий только обмен с сервером: выполняется последним перед отправкой,
+//поэтому логирование, Allure, проверки и десериализация в замер не попадают
+public class LatencyFilter implements OrderedFilter {
+
+    //Статус для запросов, завершившихся исключением (таймаут, обрыв соединения)
+    public static final int NO_RESPONSE = 0;
+
+    private final LatencyRecorder recorder;
+
+    public LatencyFilter(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        int status = NO_RESPONSE;
+        try {
+            Response res = ctx.next(requestSpec, responseSpec);
+            status = res.statusCode();
+            return res;
+        } finally {
+            recorder.record(requestSpec.getMethod(), requestSpec.getUserDefinedPath(), status,
+                    System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+}
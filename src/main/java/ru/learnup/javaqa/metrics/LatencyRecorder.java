@@ -0,0 +1,76 @@
+package ru.learnup.javaqa.metrics;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+//Гистограммы задержек REST-вызовов с разбивкой "метод + шаблон пути + статус", разрешение - микросекунды.
+//Запись из любого числа потоков без блокировок.
+public class LatencyRecorder {
+
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final LatencySlo slo;
+
+    public LatencyRecorder() {
+        this(null);
+    }
+
+    //Каждый записанный запрос дополнительно сверяется с порогом max из slo
+    public LatencyRecorder(LatencySlo slo) {
+        this.slo = slo;
+    }
+
+    public void record(String method, String endpoint, int status, long latencyNanos) {
+        record(method, endpoint, status, latencyNanos, null);
+    }
+
+    //breaches - LatencySlo.threadBreaches() потока, отправившего запрос; null - текущий поток
+    public void record(String method, String endpoint, int status, long latencyNanos, List<String> breaches) {
+        histograms.computeIfAbsent(key(method, endpoint, status), k -> new ConcurrentHistogram(3))
+                .recordValue(Math.max(0, latencyNanos / 1000));
+        if (slo != null) {
+            slo.observe(method, endpoint, status, latencyNanos, breaches == null ? LatencySlo.threadBreaches() : breaches);
+        }
+    }
+
+    public static String key(String method, String endpoint, int status) {
+        return method + " " + endpoint + " " + status;
+    }
+
+    //Неизменяемые копии гистограмм, отсортированные по ключу
+    public Map<String, Histogram> snapshot() {
+        Map<String, Histogram> copy = new TreeMap<>();
+        histograms.forEach((k, h) -> copy.put(k, h.copy()));
+        return copy;
+    }
+
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-48s %8s %9s %9s %9s %9s %9s%n",
+                "request", "count", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        snapshot().forEach((key, h) -> sb.append(String.format("%-48s %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                key, h.getTotalCount(),
+                h.getValueAtPercentile(50) / 1000.0,
+                h.getValueAtPercentile(90) / 1000.0,
+                h.getValueAtPercentile(99) / 1000.0,
+                h.getValueAtPercentile(99.9) / 1000.0,
+                h.getMaxValue() / 1000.0)));
+        return sb.toString();
+    }
+
+    public void writeSummary(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, summary().getBytes(StandardCharsets.UTF_8));
+    }
+}
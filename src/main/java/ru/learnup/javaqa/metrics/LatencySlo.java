@@ -0,0 +1,208 @@
+package ru.learnup.javaqa.metrics;
+
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+//SLO задержки по эндпоинтам (шаблонам путей из Endpoints), пороги в миллисекундах из свойств:
+//slo.max=5000, slo.p99=2000 - для всех эндпоинтов; slo./products/{id}.max=1000 - для одного эндпоинта.
+//max проверяется для каждого запроса (нарушения копятся в потоке теста), pNN - по гистограммам LatencyRecorder за прогон.
+//Асинхронный запрос завершается в потоке HttpClient: клиент берет список нарушений потока теста при отправке
+//(threadBreaches()) и передает его в LatencyRecorder. Ответ, пришедший после конца теста, тесту уже не засчитывается.
+public class LatencySlo {
+
+    private static final String MAX = "max";
+    //Имя порога: [эндпоинт.]метрика; метрика - max или pNN[.N], поэтому точка в p99.9 не отделяет эндпоинт
+    private static final Pattern KEY = Pattern.compile("(?:(.+)\\.)?(max|p\\d+(?:\\.\\d+)?)");
+    //Свойства с тем же префиксом, но не пороги
+    private static final Set<String> RESERVED = Set.of("mode", "report");
+    //Нарушения потока; пополняются и из потоков HttpClient, для потоков вне тестов список ограничен
+    private static final int MAX_THREAD_BREACHES = 100;
+    private static final ThreadLocal<List<String>> BREACHES = ThreadLocal.withInitial(ArrayList::new);
+
+    private static volatile LatencySlo installed;
+
+    @Getter
+    private final SloMode mode;
+    private final Thresholds defaults = new Thresholds();
+    private final Map<String, Thresholds> byEndpoint = new TreeMap<>();
+    private final ConcurrentMap<String, LongAdder> maxBreaches = new ConcurrentHashMap<>();
+
+    public LatencySlo(SloMode mode) {
+        this.mode = mode;
+    }
+
+    //Все свойства с префиксом (например, "slo."), кроме режима и пути отчета
+    public static LatencySlo fromProperties(Properties props, String prefix, SloMode mode) {
+        LatencySlo slo = new LatencySlo(mode);
+        for (String key : props.stringPropertyNames()) {
+            String name = key.startsWith(prefix) ? key.substring(prefix.length()) : null;
+            if (name == null || RESERVED.contains(name)) {
+                continue;
+            }
+            Matcher m = KEY.matcher(name);
+            if (!m.matches()) {
+                throw new IllegalArgumentException("Unknown SLO metric: " + key);
+            }
+            slo.threshold(m.group(1), m.group(2), Long.parseLong(props.getProperty(key).trim()));
+        }
+        return slo;
+    }
+
+    //endpoint == null - порог для всех эндпоинтов; metric - "max" или "p50", "p99", "p99.9"
+    public LatencySlo threshold(String endpoint, String metric, long millis) {
+        Thresholds t = endpoint == null ? defaults : byEndpoint.computeIfAbsent(normalize(endpoint), e -> new Thresholds());
+        if (metric.equals(MAX)) {
+            t.max = millis;
+        } else if (metric.startsWith("p")) {
+            t.percentiles.put(Double.parseDouble(metric.substring(1)), millis);
+        } else {
+            throw new IllegalArgumentException("Unknown SLO metric: " + metric);
+        }
+        return this;
+    }
+
+    public static void install(LatencySlo slo) {
+        installed = slo;
+    }
+
+    //null - SLO не заданы или отключены
+    public static LatencySlo current() {
+        LatencySlo slo = installed;
+        return slo == null || slo.mode == SloMode.OFF ? null : slo;
+    }
+
+    //Порог max для эндпоинта в мс или null
+    public Long maxMillis(String endpoint) {
+        Thresholds t = byEndpoint.get(normalize(endpoint));
+        return t != null && t.max != null ? t.max : defaults.max;
+    }
+
+    //Пороги перцентилей эндпоинта в мс: свои поверх общих
+    public Map<Double, Long> percentiles(String endpoint) {
+        Map<Double, Long> merged = new TreeMap<>(defaults.percentiles);
+        Thresholds t = byEndpoint.get(normalize(endpoint));
+        if (t != null) {
+            merged.putAll(t.percentiles);
+        }
+        return merged;
+    }
+
+    //Вызывается LatencyRecorder для каждого запроса; breaches - список потока, отправившего запрос
+    void observe(String method, String endpoint, int status, long latencyNanos, List<String> breaches) {
+        Long max = maxMillis(endpoint);
+        long millis = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        if (max == null || millis <= max) {
+            return;
+        }
+        maxBreaches.computeIfAbsent(normalize(endpoint), e -> new LongAdder()).increment();
+        synchronized (breaches) {
+            if (breaches.size() < MAX_THREAD_BREACHES) {
+                breaches.add(LatencyRecorder.key(method, endpoint, status) + ": " + millis + " ms > max " + max + " ms");
+            }
+        }
+    }
+
+    //Список нарушений текущего потока - для запросов, которые завершатся в другом потоке
+    public static List<String> threadBreaches() {
+        return BREACHES.get();
+    }
+
+    public static void clearThread() {
+        List<String> breaches = BREACHES.get();
+        synchronized (breaches) {
+            breaches.clear();
+        }
+    }
+
+    //Нарушения max в текущем потоке с последней очистки; список очищается
+    public static List<String> drainThread() {
+        List<String> breaches = BREACHES.get();
+        synchronized (breaches) {
+            List<String> copy = new ArrayList<>(breaches);
+            breaches.clear();
+            return copy;
+        }
+    }
+
+    //Нарушения за прогон по эндпоинтам: число запросов дольше max и перцентили выше порога.
+    //Гистограммы "метод эндпоинт статус" складываются по "метод эндпоинт".
+    public Map<String, List<String>> breaches(LatencyRecorder recorder) {
+        Map<String, Histogram> byRequest = new TreeMap<>();
+        recorder.snapshot().forEach((key, h) -> {
+            String request = key.substring(0, key.lastIndexOf(' '));
+            byRequest.merge(request, h, (a, b) -> {
+                a.add(b);
+                return a;
+            });
+        });
+
+        Map<String, List<String>> result = new TreeMap<>();
+        maxBreaches.forEach((endpoint, count) -> result.computeIfAbsent(endpoint, e -> new ArrayList<>())
+                .add(count.sum() + " requests > max " + maxMillis(endpoint) + " ms"));
+        byRequest.forEach((request, h) -> {
+            String endpoint = normalize(request.substring(request.indexOf(' ') + 1));
+            percentiles(endpoint).forEach((percentile, limit) -> {
+                double actual = h.getValueAtPercentile(percentile) / 1000.0;
+                if (actual > limit) {
+                    result.computeIfAbsent(endpoint, e -> new ArrayList<>()).add(String.format(
+                            "%s p%s %.2f ms > %d ms (%d requests)", request, format(percentile), actual, limit, h.getTotalCount()));
+                }
+            });
+        });
+        result.values().forEach(Collections::sort);
+        return result;
+    }
+
+    public String summary(LatencyRecorder recorder) {
+        Map<String, List<String>> breaches = breaches(recorder);
+        StringBuilder sb = new StringBuilder("SLO mode=" + mode.name().toLowerCase() + " defaults: " + defaults + "\n");
+        byEndpoint.forEach((endpoint, t) -> sb.append("  ").append(endpoint).append(": ").append(t).append('\n'));
+        if (breaches.isEmpty()) {
+            sb.append("No SLO breaches\n");
+        }
+        breaches.forEach((endpoint, list) -> {
+            sb.append(endpoint).append('\n');
+            list.forEach(b -> sb.append("  ").append(b).append('\n'));
+        });
+        return sb.toString();
+    }
+
+    //Шаблоны путей пишутся и с ведущим слешем, и без ("categories/{id}")
+    private static String normalize(String endpoint) {
+        return endpoint.startsWith("/") ? endpoint : "/" + endpoint;
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    private static class Thresholds {
+        Long max;
+        final Map<Double, Long> percentiles = new TreeMap<>();
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            if (max != null) {
+                sb.append("max=").append(max).append(" ms");
+            }
+            percentiles.forEach((p, ms) -> sb.append(sb.length() == 0 ? "" : ", ")
+                    .append('p').append(format(p)).append('=').append(ms).append(" ms"));
+            return sb.length() == 0 ? "none" : sb.toString();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.learnup.javaqa.metrics;
+
+import java.util.Locale;
+
+//Реакция на превышение SLO задержки
+public enum SloMode {
+    //Тест с запросом дольше slo.max падает, нарушение перцентилей - ошибка сводки SLO в Allure
+    FAIL,
+    //Нарушения прикладываются к тесту и сводке в Allure, тесты не падают
+    FLAG,
+    //Без проверок
+    OFF;
+
+    public static SloMode of(String value) {
+        return value == null || value.isEmpty() ? FLAG : valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,36 @@
+package ru.learnup.javaqa.replay;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+//Один записанный запрос: все, что нужно для повтора, и результат исходного обмена для сравнения
+@Getter
+@Builder
+public class RecordedExchange {
+
+    //Момент отправки от начала записи, мкс
+    private final long offsetMicros;
+
+    private final String method;
+
+    //Шаблон пути, как в Endpoints (products/{id}), и значения параметров по порядку
+    private final String template;
+    private final List<String> pathParams;
+
+    //null - запрос без тела
+    private final String contentType;
+    private final byte[] body;
+
+    private final int status;
+    private final long latencyMicros;
+
+    //Идентификатор из ответа на успешный POST, 0 - нет; при повторе новый идентификатор подставляется вместо него
+    private final long createdId;
+
+    @Override
+    public String toString() {
+        return method + " " + template + " " + pathParams + " -> " + status;
+    }
+}
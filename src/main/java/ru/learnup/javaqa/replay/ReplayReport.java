@@ -0,0 +1,68 @@
+package ru.learnup.javaqa.replay;
+
+import ru.learnup.javaqa.metrics.LatencyRecorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+//Итоги повтора журнала: задержки по "метод + шаблон + статус" и расхождения с записанными ответами
+public class ReplayReport {
+
+    private final LatencyRecorder latency = new LatencyRecorder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder statusMismatches = new LongAdder();
+    private final LongAdder notSent = new LongAdder();
+    private volatile long elapsedNanos;
+
+    void record(RecordedExchange exchange, int status, long latencyNanos) {
+        sent.increment();
+        latency.record(exchange.getMethod(), exchange.getTemplate(), status, latencyNanos);
+        if (status == 0) {
+            failed.increment();
+        } else if (status != exchange.getStatus()) {
+            statusMismatches.increment();
+        }
+    }
+
+    void notSent(int count) {
+        notSent.add(count);
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    //Запросы, завершившиеся исключением (таймаут, обрыв соединения)
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    //Статус ответа отличается от записанного
+    public long getStatusMismatches() {
+        return statusMismatches.sum();
+    }
+
+    //Записи, которые не успели отправить до остановки повтора
+    public long getNotSent() {
+        return notSent.sum();
+    }
+
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getSent() * 1e9 / elapsedNanos;
+    }
+
+    public LatencyRecorder getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("elapsed %.1f s, %d requests, %.1f req/s, %d failed, %d status mismatches, %d not sent%n",
+                elapsedNanos / 1e9, getSent(), getThroughput(), getFailed(), getStatusMismatches(), getNotSent())
+                + latency.summary();
+    }
+}
@@ -0,0 +1,86 @@
+package ru.learnup.javaqa.replay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+//Формат журнала нагрузки: последовательность элементов, каждый начинается с байта-метки.
+//SEGMENT открывает сегмент при каждом открытии файла на запись (новый прогон): MAGIC, VERSION, начало записи (epoch ms).
+//EXCHANGE - записанный обмен:
+//  varlong  сдвиг момента отправки от предыдущей записи, мкс (zigzag: записи идут в порядке завершения)
+//  ref      метод
+//  ref      шаблон пути
+//  varint   число параметров пути, затем строки значений
+//  ref      Content-Type (null - нет тела)
+//  varint   длина тела + 1 (0 - нет тела), затем байты тела
+//  varint   статус, varlong задержка в мкс, varlong созданный идентификатор (0 - нет)
+//ref - ссылка на словарь сегмента: 0 - null, 1 - новая строка (следует за ссылкой), k - строка k - 2.
+//Методы, шаблоны и типы повторяются в каждом запросе, поэтому записываются один раз на сегмент.
+final class WorkloadLog {
+
+    static final int SEGMENT = 'S';
+    static final int EXCHANGE = 'E';
+    static final int MAGIC = 0x574C4F47;
+    static final int VERSION = 1;
+    //Тела запросов к магазину - килобайты; большая длина означает испорченный файл
+    static final int MAX_LENGTH = 64 * 1024 * 1024;
+
+    private WorkloadLog() {
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    static void writeZigZag(DataOutput out, long value) throws IOException {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    static long readZigZag(DataInput in) throws IOException {
+        long v = readVarLong(in);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static byte[] readBytes(DataInput in) throws IOException {
+        byte[] bytes = new byte[checkedLength(readVarLong(in))];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    static void writeString(DataOutput out, String s) throws IOException {
+        writeBytes(out, s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String readString(DataInput in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    static int checkedLength(long length) throws IOException {
+        if (length < 0 || length > MAX_LENGTH) {
+            throw new IOException("Malformed length " + length);
+        }
+        return (int) length;
+    }
+}
@@ -0,0 +1,175 @@
+package ru.learnup.javaqa.replay;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import static ru.learnup.javaqa.replay.WorkloadLog.*;
+
+//Последовательное чтение журнала нагрузки без загрузки в память.
+//Сегменты разных прогонов идут друг за другом: сдвиги следующего сегмента отсчитываются от конца предыдущего.
+//Оборванная последняя запись (прогон прерван до закрытия журнала) молча отбрасывается.
+//Записи в файле идут в порядке завершения, а выдаются в порядке отправки: запись придерживается в буфере,
+//пока не прочитана запись, завершившаяся позже ее отправки больше чем на reorderWindow. Все еще не прочитанные
+//записи завершились позже, поэтому отправлены не раньше - если их задержка не больше окна.
+//Запись с большей задержкой (обычно таймаут) выдается, как только прочитана, - позже соседей по времени отправки.
+public class WorkloadReader implements Iterator<RecordedExchange>, AutoCloseable {
+
+    private final DataInputStream in;
+    private final long reorderWindow;
+    private final List<String> dictionary = new ArrayList<>();
+    private final PriorityQueue<RecordedExchange> buffer = new PriorityQueue<>(
+            Comparator.comparingLong(RecordedExchange::getOffsetMicros).thenComparingLong(RecordedExchange::getLatencyMicros));
+    private long segmentBase;
+    private long offset;
+    private long maxOffset;
+    private long maxCompleted;
+    private boolean inSegment;
+    private RecordedExchange next;
+    private boolean eof;
+
+    //reorderWindowMicros - наибольшая задержка записанного запроса, мкс (таймауты прогона, в котором шла запись)
+    public WorkloadReader(Path file, long reorderWindowMicros) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+        reorderWindow = Math.max(0, reorderWindowMicros);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = poll();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public RecordedExchange next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        RecordedExchange exchange = next;
+        next = null;
+        return exchange;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private RecordedExchange poll() throws IOException {
+        while (!eof) {
+            RecordedExchange head = buffer.peek();
+            if (head != null && head.getOffsetMicros() + reorderWindow < maxCompleted) {
+                return buffer.poll();
+            }
+            RecordedExchange exchange = read();
+            if (exchange == null) {
+                eof = true;
+            } else {
+                buffer.add(exchange);
+                maxCompleted = Math.max(maxCompleted, exchange.getOffsetMicros() + exchange.getLatencyMicros());
+            }
+        }
+        return buffer.poll();
+    }
+
+    private RecordedExchange read() throws IOException {
+        try {
+            while (true) {
+                int tag = in.read();
+                if (tag < 0) {
+                    return null;
+                } else if (tag == SEGMENT) {
+                    startSegment();
+                } else if (tag == EXCHANGE && inSegment) {
+                    return readExchange();
+                } else {
+                    throw new IOException("Not a workload log");
+                }
+            }
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private void startSegment() throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a workload log");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported workload log version " + version);
+        }
+        in.readLong();
+        dictionary.clear();
+        segmentBase = maxOffset;
+        offset = 0;
+        inSegment = true;
+    }
+
+    private RecordedExchange readExchange() throws IOException {
+        offset += readZigZag(in);
+        String method = readRef();
+        String template = readRef();
+        int count = checkedLength(readVarLong(in));
+        List<String> params = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            params.add(readString(in));
+        }
+        String contentType = readRef();
+        long bodyLength = readVarLong(in);
+        byte[] body = null;
+        if (bodyLength > 0) {
+            body = new byte[checkedLength(bodyLength - 1)];
+            in.readFully(body);
+        }
+        int status = (int) readVarLong(in);
+        long latency = readVarLong(in);
+        long createdId = readVarLong(in);
+
+        long absolute = segmentBase + Math.max(0, offset);
+        maxOffset = Math.max(maxOffset, absolute);
+        return RecordedExchange.builder()
+                .offsetMicros(absolute)
+                .method(method)
+                .template(template)
+                .pathParams(params)
+                .contentType(contentType)
+                .body(body)
+                .status(status)
+                .latencyMicros(latency)
+                .createdId(createdId)
+                .build();
+    }
+
+    private String readRef() throws IOException {
+        long ref = readVarLong(in);
+        if (ref == 0) {
+            return null;
+        }
+        if (ref == 1) {
+            String s = readString(in);
+            dictionary.add(s);
+            return s;
+        }
+        if (ref - 2 >= dictionary.size()) {
+            throw new IOException("Malformed dictionary reference " + ref);
+        }
+        return dictionary.get((int) (ref - 2));
+    }
+}
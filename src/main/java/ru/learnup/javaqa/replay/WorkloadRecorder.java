@@ -0,0 +1,165 @@
+package ru.learnup.javaqa.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import ru.learnup.javaqa.dto.DtoMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static ru.learnup.javaqa.replay.WorkloadLog.*;
+
+//Фильтр RestAssured, дописывающий каждый обмен в журнал нагрузки (формат - WorkloadLog) для WorkloadReplayer.
+//Выполняется непосредственно перед LatencyFilter, тело запроса к этому моменту уже сериализовано.
+//Запись под одной блокировкой в буферизованный поток: в файл попадают целые буферы, а не отдельные запросы.
+//Параметры запроса (query) и заголовки не записываются: ProductApi и CategoryApi их не используют.
+public class WorkloadRecorder implements OrderedFilter, AutoCloseable {
+
+    private final DataOutputStream out;
+    private final long start = System.nanoTime();
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private long lastOffset;
+    private long recorded;
+    private boolean closed;
+    private IOException failure;
+
+    public WorkloadRecorder(Path file) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024));
+        out.writeByte(SEGMENT);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(System.currentTimeMillis());
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long sent = System.nanoTime();
+        Response res = null;
+        try {
+            res = ctx.next(requestSpec, responseSpec);
+            return res;
+        } finally {
+            long latency = System.nanoTime() - sent;
+            int status = res == null ? 0 : res.statusCode();
+            write(TimeUnit.NANOSECONDS.toMicros(sent - start), requestSpec.getMethod(),
+                    requestSpec.getUserDefinedPath(), requestSpec.getUnnamedPathParamValues(),
+                    requestSpec.getContentType(), body(requestSpec.getBody()), status,
+                    TimeUnit.NANOSECONDS.toMicros(latency), createdId(requestSpec.getMethod(), res));
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE - 1;
+    }
+
+    public synchronized long getRecorded() {
+        return recorded;
+    }
+
+    public synchronized IOException getFailure() {
+        return failure;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        out.close();
+    }
+
+    private synchronized void write(long offset, String method, String template, List<String> params,
+                                    String contentType, byte[] body, int status, long latency, long createdId) {
+        if (closed) {
+            return;
+        }
+        try {
+            out.writeByte(EXCHANGE);
+            writeZigZag(out, offset - lastOffset);
+            lastOffset = offset;
+            writeRef(method);
+            writeRef(template);
+            writeVarLong(out, params.size());
+            for (String param : params) {
+                writeString(out, param);
+            }
+            writeRef(body == null ? null : contentType);
+            if (body == null) {
+                writeVarLong(out, 0);
+            } else {
+                writeVarLong(out, body.length + 1L);
+                out.write(body);
+            }
+            writeVarLong(out, status);
+            writeVarLong(out, latency);
+            writeVarLong(out, createdId);
+            recorded++;
+        } catch (IOException e) {
+            //Сбой диска не должен ронять тесты: запись прекращается, ошибка видна в getFailure()
+            failure = e;
+            closed = true;
+            try {
+                out.close();
+            } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+        }
+    }
+
+    private void writeRef(String s) throws IOException {
+        if (s == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        Integer index = dictionary.get(s);
+        if (index == null) {
+            dictionary.put(s, dictionary.size());
+            writeVarLong(out, 1);
+            writeString(out, s);
+        } else {
+            writeVarLong(out, index + 2L);
+        }
+    }
+
+    private static byte[] body(Object body) {
+        if (body == null) {
+            return null;
+        }
+        return body instanceof byte[] ? (byte[]) body : body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    //Идентификатор созданного продукта нужен, чтобы при повторе подставить вместо него новый
+    private static long createdId(String method, Response res) {
+        if (!"POST".equals(method) || res == null || res.statusCode() / 100 != 2) {
+            return 0;
+        }
+        return createdId(res);
+    }
+
+    static long createdId(Response res) {
+        try {
+            JsonNode id = DtoMapper.INSTANCE.mapper().readTree(res.asByteArray()).path("id");
+            return id.canConvertToLong() ? id.longValue() : 0;
+        } catch (IOException | RuntimeException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package ru.learnup.javaqa.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import lombok.Builder;
+import ru.learnup.javaqa.dto.DtoMapper;
+import ru.learnup.javaqa.http.ConnectionPool;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+//Повтор журнала WorkloadRecorder на другом стенде.
+//speed > 0 - по расписанию записи, ускоренному в speed раз (1 - как записано): задержка считается от
+//запланированного момента, как в открытой модели LoadRunner. speed <= 0 - с максимальной скоростью:
+//запросы идут в порядке отправки при записи, одновременно не больше concurrency.
+//Окно упорядочивания WorkloadReader - таймауты соединения и чтения с запасом в секунду: дольше записанный запрос
+//идти не мог, если запись шла с теми же таймаутами.
+//Идентификаторы продуктов, созданных при записи, заменяются созданными при повторе - в параметрах пути и в поле id тела.
+//Запрос, отправленный раньше, чем завершился создавший продукт POST, уходит со старым идентификатором
+//и обычно получает 404: это видно в отчете как расхождение статуса.
+public class WorkloadReplayer {
+
+    private final double speed;
+    private final int concurrency;
+    private final long reorderWindow;
+    private final ConnectionPool pool;
+    private final RequestSpecification spec;
+    private final ConcurrentMap<Long, Long> ids = new ConcurrentHashMap<>();
+
+    @Builder
+    public WorkloadReplayer(String baseUrl, double speed, int concurrency, int connectTimeout, int readTimeout) {
+        this.speed = speed;
+        this.concurrency = Math.max(1, concurrency);
+        this.reorderWindow = TimeUnit.MILLISECONDS.toMicros(connectTimeout + readTimeout + 1000L);
+        this.pool = ConnectionPool.builder()
+                .maxTotal(this.concurrency)
+                .maxPerRoute(this.concurrency)
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .idleTimeout(readTimeout)
+                .build();
+        this.spec = new RequestSpecBuilder()
+                .setBaseUri(baseUrl)
+                .setConfig(pool.config().objectMapperConfig(DtoMapper.INSTANCE.config()))
+                .build();
+    }
+
+    public ReplayReport replay(Path file) throws IOException, InterruptedException {
+        ReplayReport report = new ReplayReport();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        Semaphore window = new Semaphore(speed > 0 ? Integer.MAX_VALUE : concurrency);
+        long start = System.nanoTime();
+        try (WorkloadReader reader = new WorkloadReader(file, reorderWindow)) {
+            while (reader.hasNext()) {
+                RecordedExchange exchange = reader.next();
+                long scheduled;
+                if (speed > 0) {
+                    scheduled = start + (long) (TimeUnit.MICROSECONDS.toNanos(exchange.getOffsetMicros()) / speed);
+                    //parkNanos может вернуться раньше срока
+                    long wait;
+                    while ((wait = scheduled - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    window.acquire();
+                } else {
+                    //Закрытая модель: ожидание свободного места в окне - не задержка сервера
+                    window.acquire();
+                    scheduled = System.nanoTime();
+                }
+                workers.execute(() -> {
+                    try {
+                        report.record(exchange, send(exchange), System.nanoTime() - scheduled);
+                    } finally {
+                        window.release();
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+            if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                //Не начатые за минуту запросы не отправляются и считаются в отчете; начатые ограничены
+                //таймаутами соединения и чтения - пул закрывается только после них
+                report.notSent(workers.shutdownNow().size());
+                workers.awaitTermination(reorderWindow, TimeUnit.MICROSECONDS);
+            }
+            report.finish(System.nanoTime() - start);
+            pool.close();
+        }
+        return report;
+    }
+
+    private int send(RecordedExchange exchange) {
+        RequestSpecification request = RestAssured.given().spec(spec);
+        if (exchange.getBody() != null) {
+            request.contentType(exchange.getContentType()).body(remapBody(exchange.getBody()));
+        }
+        Response res;
+        try {
+            res = request.request(exchange.getMethod(), exchange.getTemplate(), remapParams(exchange.getPathParams()));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+        if (exchange.getCreatedId() != 0 && res.statusCode() / 100 == 2) {
+            long created = WorkloadRecorder.createdId(res);
+            if (created != 0) {
+                ids.put(exchange.getCreatedId(), created);
+            }
+        }
+        return res.statusCode();
+    }
+
+    private Object[] remapParams(List<String> params) {
+        Object[] values = new Object[params.size()];
+        for (int i = 0; i < values.length; i++) {
+            String value = params.get(i);
+            Long mapped = ids.isEmpty() ? null : ids.get(parseId(value));
+            values[i] = mapped == null ? value : mapped.toString();
+        }
+        return values;
+    }
+
+    //Тело PUT содержит идентификатор продукта; прочие тела отправляются как записаны
+    private byte[] remapBody(byte[] body) {
+        if (ids.isEmpty()) {
+            return body;
+        }
+        try {
+            JsonNode tree = DtoMapper.INSTANCE.mapper().readTree(body);
+            JsonNode id = tree.path("id");
+            Long mapped = id.canConvertToLong() ? ids.get(id.longValue()) : null;
+            if (mapped == null) {
+                return body;
+            }
+            ((ObjectNode) tree).put("id", mapped);
+            return DtoMapper.INSTANCE.mapper().writeValueAsBytes(tree);
+        } catch (IOException | RuntimeException e) {
+            return body;
+        }
+    }
+
+    private static long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
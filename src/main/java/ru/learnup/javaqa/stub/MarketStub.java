@@ -0,0 +1,313 @@
+package ru.learnup.javaqa.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Getter;
+import ru.learnup.javaqa.dto.Category;
+import ru.learnup.javaqa.dto.DtoMapper;
+import ru.learnup.javaqa.dto.Product;
+import ru.learnup.javaqa.dto.Products;
+import ru.learnup.javaqa.enums.CategoryType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+//Встроенная заглушка API магазина: /products, /products/{id} и categories/{id} в памяти процесса.
+//Категории берутся из CategoryType (кроме NOT_AVAILABLE, которая на стенде не существует),
+//продукты хранятся в ConcurrentHashMap, идентификаторы выдаются атомарным счетчиком.
+//Без -Dsun.net.httpserver.nodelay=true (его задает BaseTest) каждый keep-alive ответ ждет delayed ACK клиента.
+public class MarketStub implements AutoCloseable {
+
+    public static final String CONTEXT_PATH = "/market/api/v1/";
+
+    //Первый идентификатор совпадает с продуктом, который GetProductTests ожидает найти на стенде
+    private static final long FIRST_ID = 20442L;
+
+    private static final String PRODUCTS = "products";
+    private static final String CATEGORIES = "categories";
+
+    private final ObjectMapper mapper = DtoMapper.INSTANCE.mapper();
+    private final ConcurrentMap<Long, Product> products = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong(FIRST_ID);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    @Getter
+    private final String baseUrl;
+
+    private MarketStub(int port, int threads) throws IOException {
+        seed();
+
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "market-stub");
+            t.setDaemon(true);
+            return t;
+        });
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        server.createContext(CONTEXT_PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+
+        baseUrl = "http://localhost:" + server.getAddress().getPort() + CONTEXT_PATH;
+    }
+
+    //Запуск на свободном порту
+    public static MarketStub start() throws IOException {
+        return start(0, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public static MarketStub start(int port, int threads) throws IOException {
+        return new MarketStub(port, threads);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void seed() {
+        create("Apples", 80, CategoryType.FOOD);
+        create("Bread", 25, CategoryType.FOOD);
+        create("Milk", 95, CategoryType.FOOD);
+        create("Samsung Watch X1000", 20000, CategoryType.ELECTRONIC);
+        create("LG 4K TV", 50000, CategoryType.ELECTRONIC);
+        create("Oak table", 12000, CategoryType.FURNITURE);
+    }
+
+    private Product create(String title, Integer price, CategoryType category) {
+        Product p = new Product(ids.getAndIncrement(), title, price, category.getName());
+        products.put(p.getId(), p);
+        return p;
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            String path = ex.getRequestURI().getRawPath().substring(CONTEXT_PATH.length());
+            String method = ex.getRequestMethod();
+
+            if (path.equals(PRODUCTS)) {
+                switch (method) {
+                    case "GET":
+                        Products all = new Products();
+                        all.setProducts(new ArrayList<>(products.values()));
+                        send(ex, 200, all);
+                        return;
+                    case "POST":
+                        postProduct(ex);
+                        return;
+                    case "PUT":
+                        putProduct(ex);
+                        return;
+                    default:
+                        error(ex, 405, "Method not allowed");
+                        return;
+                }
+            }
+            if (path.startsWith(PRODUCTS + "/")) {
+                productById(ex, method, decode(path.substring(PRODUCTS.length() + 1)));
+                return;
+            }
+            if (path.startsWith(CATEGORIES + "/") && path.length() > CATEGORIES.length() + 1 && method.equals("GET")) {
+                categoryById(ex, decode(path.substring(CATEGORIES.length() + 1)));
+                return;
+            }
+            error(ex, 404, "Not found");
+        } catch (RuntimeException e) {
+            error(ex, 500, e.toString());
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void productById(HttpExchange ex, String method, String rawId) throws IOException {
+        Long id = parseId(rawId);
+        if (id == null) {
+            error(ex, 400, "Invalid product id: " + rawId);
+            return;
+        }
+        switch (method) {
+            case "GET": {
+                Product p = products.get(id);
+                if (p == null) {
+                    error(ex, 404, "Product with id: " + id + " doesn't exist");
+                } else {
+                    send(ex, 200, p);
+                }
+                return;
+            }
+            case "DELETE":
+                if (products.remove(id) == null) {
+                    error(ex, 404, "Product with id: " + id + " doesn't exist");
+                } else {
+                    send(ex, 200, null);
+                }
+                return;
+            default:
+                error(ex, 405, "Method not allowed");
+        }
+    }
+
+    private void categoryById(HttpExchange ex, String rawId) throws IOException {
+        Long id = parseId(rawId);
+        if (id == null) {
+            error(ex, 400, "Invalid category id: " + rawId);
+            return;
+        }
+        CategoryType type = CategoryType.fromId(id);
+        if (type == null || type == CategoryType.NOT_AVAILABLE) {
+            error(ex, 404, "Category with id: " + id + " doesn't exist");
+            return;
+        }
+        Category c = new Category();
+        c.setId(type.getId());
+        c.setTitle(type.getName());
+        c.setProducts(products.values().stream()
+                .filter(p -> type.getName().equals(p.getCategoryTitle()))
+                .collect(Collectors.toList()));
+        send(ex, 200, c);
+    }
+
+    private void postProduct(HttpExchange ex) throws IOException {
+        JsonNode body = readBody(ex);
+        if (body == null) {
+            error(ex, 400, "Malformed JSON request");
+            return;
+        }
+        if (body.hasNonNull("id")) {
+            error(ex, 400, "Id must be null for new entity");
+            return;
+        }
+        String invalid = validate(body);
+        if (invalid != null) {
+            error(ex, 400, invalid);
+            return;
+        }
+        CategoryType category = CategoryType.fromName(body.get("categoryTitle").textValue());
+        if (category == null || category == CategoryType.NOT_AVAILABLE) {
+            error(ex, 404, "Category doesn't exist");
+            return;
+        }
+        send(ex, 201, create(body.get("title").textValue(), body.get("price").intValue(), category));
+    }
+
+    private void putProduct(HttpExchange ex) throws IOException {
+        JsonNode body = readBody(ex);
+        if (body == null) {
+            error(ex, 400, "Malformed JSON request");
+            return;
+        }
+        JsonNode idNode = body.get("id");
+        if (idNode == null || !idNode.isIntegralNumber() || !idNode.canConvertToLong()
+                || idNode.longValue() <= 0 || !products.containsKey(idNode.longValue())) {
+            error(ex, 400, "Product with given id doesn't exist");
+            return;
+        }
+        String invalid = validate(body);
+        if (invalid != null) {
+            error(ex, 400, invalid);
+            return;
+        }
+        CategoryType category = CategoryType.fromName(body.get("categoryTitle").textValue());
+        if (category == null || category == CategoryType.NOT_AVAILABLE) {
+            error(ex, 404, "Category doesn't exist");
+            return;
+        }
+        Product p = new Product(idNode.longValue(), body.get("title").textValue(),
+                body.get("price").intValue(), category.getName());
+        products.put(p.getId(), p);
+        send(ex, 200, p);
+    }
+
+    //Возвращает описание ошибки валидации или null, если тело запроса корректно
+    private String validate(JsonNode body) {
+        JsonNode title = body.get("title");
+        if (title == null || !title.isTextual() || title.textValue().isEmpty()) {
+            return "Invalid title";
+        }
+        JsonNode price = body.get("price");
+        if (price == null || !price.isInt() || price.intValue() <= 0) {
+            return "Invalid price";
+        }
+        JsonNode category = body.get("categoryTitle");
+        if (category == null || !category.isTextual() || category.textValue().isEmpty()) {
+            return "Invalid category title";
+        }
+        return null;
+    }
+
+    private JsonNode readBody(HttpExchange ex) {
+        try (InputStream in = ex.getRequestBody()) {
+            JsonNode node = mapper.readTree(in);
+            return node != null && node.isObject() ? node : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    //Идентификатор - только положительное число, помещающееся в long
+    private static Long parseId(String raw) {
+        if (raw.isEmpty() || raw.length() > 19) {
+            return null;
+        }
+        for (int i = 0; i < raw.length(); i++) {
+            char ch = raw.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return null;
+            }
+        }
+        try {
+            long id = Long.parseLong(raw);
+            return id > 0 ? id : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String decode(String raw) {
+        try {
+            return URLDecoder.decode(raw.replace("+", "%2B"), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return raw;
+        }
+    }
+
+    private void error(HttpExchange ex, int status, String message) throws IOException {
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", status);
+        body.put("message", message);
+        send(ex, status, body);
+    }
+
+    private void send(HttpExchange ex, int status, Object body) throws IOException {
+        if (body == null) {
+            //Ответ без тела сервер закрывает сразу; если тело запроса не дочитано до конца, закрывается и соединение
+            ex.getRequestBody().close();
+            ex.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = DtoMapper.INSTANCE.writer(body.getClass()).writeValueAsBytes(body);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package ru.learnup.javaqa.logging;
+
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+//Журнал обменов без стенда: параллельная запись, переход по сегментам и восстановление индекса open()
+@Epic("Инфраструктура тестов")
+@Feature("Журнал обменов")
+@Severity(NORMAL)
+public class MappedExchangeLogTests {
+
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 2000;
+
+    @TempDir
+    Path dir;
+
+    private static byte[] content(int thread, int i) {
+        return ("{\"thread\":" + thread + ",\"i\":" + i + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(MappedExchangeLog log, MappedExchangeLog.Entry entry) {
+        return new String(log.read(entry), StandardCharsets.UTF_8);
+    }
+
+    //Записи каждого теста - в порядке записи и с записанным содержимым
+    private static void assertComplete(MappedExchangeLog log) {
+        assertThat(log.getCount(), equalTo((long) THREADS * PER_THREAD));
+        for (int t = 0; t < THREADS; t++) {
+            List<MappedExchangeLog.Entry> entries = log.find("test-" + t);
+            assertThat(entries, hasSize(PER_THREAD));
+            for (int i = 0; i < PER_THREAD; i++) {
+                assertThat(text(log, entries.get(i)), equalTo(new String(content(t, i), StandardCharsets.UTF_8)));
+            }
+        }
+        assertThat(log.findByEndpoint("GET products/{id}"), hasSize(THREADS * PER_THREAD / 2));
+    }
+
+    private static MappedExchangeLog writeConcurrently(Path dir) throws Exception {
+        MappedExchangeLog log = MappedExchangeLog.builder().directory(dir).segmentSize(64 * 1024).build();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        String endpoint = i % 2 == 0 ? "GET products/{id}" : "PUT products";
+                        //Содержимое частями, как его пишет AllureExchangeFilter
+                        byte[] content = content(thread, i);
+                        int half = content.length / 2;
+                        log.append("test-" + thread, endpoint, Arrays.copyOf(content, half),
+                                Arrays.copyOfRange(content, half, content.length));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return log;
+    }
+
+    @Severity(CRITICAL)
+    @Test
+    @Story("Параллельная запись")
+    void appendConcurrently() throws Exception {
+        MappedExchangeLog log = writeConcurrently(dir);
+
+        assertThat(log.getSegmentCount(), greaterThan(1));
+        assertComplete(log);
+        log.close();
+        assertThat(log.append("test-0", "GET products/{id}", new byte[1]), nullValue());
+    }
+
+    @Test
+    @Story("Чтение записанного журнала")
+    void reopen() throws Exception {
+        writeConcurrently(dir).close();
+
+        MappedExchangeLog log = MappedExchangeLog.open(dir);
+
+        assertComplete(log);
+        assertThat(Files.readAllLines(dir.resolve(MappedExchangeLog.INDEX)), hasSize(THREADS * PER_THREAD + 1));
+    }
+
+    @Test
+    @Story("Чтение прерванного журнала")
+    void reopenWithoutClose() throws Exception {
+        MappedExchangeLog written = MappedExchangeLog.builder().directory(dir).segmentSize(4096).build();
+        written.append("test", "GET products", "first".getBytes(StandardCharsets.UTF_8));
+        MappedExchangeLog.Entry last = written.append("test", "GET products", "second".getBytes(StandardCharsets.UTF_8));
+        //Незаконченная запись: содержимое скопировано, длина еще не записана
+        Path segment = dir.resolve("segment-000001.seg");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap("half-written".getBytes(StandardCharsets.UTF_8)),
+                    last.getOffset() + last.getLength() + Integer.BYTES);
+        }
+
+        MappedExchangeLog log = MappedExchangeLog.open(dir);
+
+        List<MappedExchangeLog.Entry> entries = log.find("test");
+        assertThat(entries, hasSize(2));
+        assertThat(text(log, entries.get(1)), equalTo("second"));
+        assertThat(Files.exists(dir.resolve(MappedExchangeLog.INDEX)), is(false));
+    }
+
+    @Severity(MINOR)
+    @Test
+    @Story("Запись больше сегмента")
+    void appendLargerThanSegment() throws Exception {
+        MappedExchangeLog log = MappedExchangeLog.builder().directory(dir).segmentSize(1024).build();
+        byte[] large = new byte[10_000];
+        Arrays.fill(large, (byte) 'x');
+
+        log.append("test", "POST products", "small".getBytes(StandardCharsets.UTF_8));
+        log.append("test", "POST products", large);
+        log.append("test", "POST products", "next".getBytes(StandardCharsets.UTF_8));
+        log.close();
+
+        MappedExchangeLog reopened = MappedExchangeLog.open(dir);
+        List<MappedExchangeLog.Entry> entries = reopened.find("test", "POST products");
+        assertThat(entries, hasSize(3));
+        assertThat(reopened.read(entries.get(1)), equalTo(large));
+        assertThat(text(reopened, entries.get(2)), equalTo("next"));
+        assertThat(reopened.getSegmentCount(), equalTo(3));
+    }
+}
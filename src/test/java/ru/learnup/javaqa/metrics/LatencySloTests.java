@@ -0,0 +1,77 @@
+package ru.learnup.javaqa.metrics;
+
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//Разбор свойств slo.* и учет нарушений без стенда
+@Epic("Инфраструктура тестов")
+@Feature("Latency SLO")
+@Severity(NORMAL)
+public class LatencySloTests {
+
+    private static LatencySlo parse(String... keyValues) {
+        Properties props = new Properties();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            props.setProperty(keyValues[i], keyValues[i + 1]);
+        }
+        return LatencySlo.fromProperties(props, "slo.", SloMode.FAIL);
+    }
+
+    @Test
+    @Story("Общие пороги")
+    void parseDefaultThresholds() {
+        LatencySlo slo = parse("slo.max", "5000", "slo.p99", "2000", "slo.p99.9", "3000", "slo.mode", "fail");
+
+        assertThat(slo.maxMillis("/products"), equalTo(5000L));
+        assertThat(slo.percentiles("/products"), equalTo(Map.of(99.0, 2000L, 99.9, 3000L)));
+    }
+
+    @Test
+    @Story("Пороги эндпоинта")
+    void parseEndpointThresholds() {
+        LatencySlo slo = parse("slo.p99", "2000",
+                "slo./products/{id}.max", "1000", "slo./products/{id}.p99.9", "1500", "slo.categories/{id}.p50", "100");
+
+        assertThat(slo.maxMillis("/products/{id}"), equalTo(1000L));
+        assertThat(slo.maxMillis("/products"), nullValue());
+        assertThat(slo.percentiles("/products/{id}"), equalTo(Map.of(99.0, 2000L, 99.9, 1500L)));
+        assertThat(slo.percentiles("/categories/{id}"), equalTo(Map.of(99.0, 2000L, 50.0, 100L)));
+    }
+
+    @Severity(MINOR)
+    @Test
+    @Story("Неизвестная метрика")
+    void parseUnknownMetric() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> parse("slo./products.avg", "100"));
+
+        assertThat(e.getMessage(), containsString("slo./products.avg"));
+    }
+
+    @Test
+    @Story("Нарушения асинхронных запросов")
+    void chargeBreachToSendingThread() {
+        LatencyRecorder recorder = new LatencyRecorder(parse("slo.max", "100"));
+        LatencySlo.clearThread();
+        List<String> breaches = LatencySlo.threadBreaches();
+
+        //Как AsyncMarketClient: ответ обрабатывается в другом потоке
+        CompletableFuture.runAsync(() -> recorder.record("GET", "/products", 200,
+                TimeUnit.MILLISECONDS.toNanos(150), breaches)).join();
+        recorder.record("GET", "/products", 200, TimeUnit.MILLISECONDS.toNanos(50));
+
+        assertThat(LatencySlo.drainThread(), contains("GET /products 200: 150 ms > max 100 ms"));
+        assertThat(LatencySlo.drainThread(), empty());
+    }
+}
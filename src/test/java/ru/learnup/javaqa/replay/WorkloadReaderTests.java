@@ -0,0 +1,246 @@
+package ru.learnup.javaqa.replay;
+
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static ru.learnup.javaqa.replay.WorkloadLog.*;
+
+//Формат журнала нагрузки и чтение в порядке отправки без стенда: журнал пишется здесь так же, как WorkloadRecorder
+@Epic("Инфраструктура тестов")
+@Feature("Replay Workload")
+@Severity(NORMAL)
+public class WorkloadReaderTests {
+
+    @TempDir
+    Path dir;
+
+    //Запись журнала: отправка (мкс), задержка (мкс), метод, шаблон, параметры, тело, статус, созданный идентификатор
+    private static class Exchange {
+        final long offset;
+        final long latency;
+        final String method;
+        final String template;
+        final List<String> params;
+        final String body;
+        final int status;
+        final long createdId;
+
+        Exchange(long offset, long latency, String method, String template, List<String> params,
+                 String body, int status, long createdId) {
+            this.offset = offset;
+            this.latency = latency;
+            this.method = method;
+            this.template = template;
+            this.params = params;
+            this.body = body;
+            this.status = status;
+            this.createdId = createdId;
+        }
+    }
+
+    //Сегмент, как его пишет WorkloadRecorder: записи в порядке завершения, сдвиги от предыдущей записи
+    private static void appendSegment(Path file, List<Exchange> exchanges) throws IOException {
+        List<Exchange> byCompletion = new ArrayList<>(exchanges);
+        byCompletion.sort(Comparator.comparingLong(x -> x.offset + x.latency));
+        Map<String, Integer> dictionary = new HashMap<>();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)))) {
+            out.writeByte(SEGMENT);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            long last = 0;
+            for (Exchange x : byCompletion) {
+                out.writeByte(EXCHANGE);
+                writeZigZag(out, x.offset - last);
+                last = x.offset;
+                writeRef(out, dictionary, x.method);
+                writeRef(out, dictionary, x.template);
+                writeVarLong(out, x.params.size());
+                for (String param : x.params) {
+                    writeString(out, param);
+                }
+                writeRef(out, dictionary, x.body == null ? null : "application/json");
+                if (x.body == null) {
+                    writeVarLong(out, 0);
+                } else {
+                    byte[] body = x.body.getBytes(StandardCharsets.UTF_8);
+                    writeVarLong(out, body.length + 1L);
+                    out.write(body);
+                }
+                writeVarLong(out, x.status);
+                writeVarLong(out, x.latency);
+                writeVarLong(out, x.createdId);
+            }
+        }
+    }
+
+    private static void writeRef(DataOutputStream out, Map<String, Integer> dictionary, String s) throws IOException {
+        if (s == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        Integer index = dictionary.get(s);
+        if (index == null) {
+            dictionary.put(s, dictionary.size());
+            writeVarLong(out, 1);
+            writeString(out, s);
+        } else {
+            writeVarLong(out, index + 2L);
+        }
+    }
+
+    private static List<RecordedExchange> readAll(Path file, long reorderWindowMicros) throws IOException {
+        List<RecordedExchange> result = new ArrayList<>();
+        try (WorkloadReader reader = new WorkloadReader(file, reorderWindowMicros)) {
+            reader.forEachRemaining(result::add);
+        }
+        return result;
+    }
+
+    private static List<Exchange> randomExchanges(SplittableRandom random, int count, long maxLatency) {
+        List<Exchange> exchanges = new ArrayList<>(count);
+        long offset = 0;
+        for (int i = 0; i < count; i++) {
+            offset += random.nextInt(500);
+            exchanges.add(new Exchange(offset, random.nextLong(maxLatency + 1), "GET", "products/{id}",
+                    List.of(String.valueOf(i)), null, 200, 0));
+        }
+        return exchanges;
+    }
+
+    private static long inversions(List<RecordedExchange> exchanges) {
+        long inversions = 0;
+        for (int i = 1; i < exchanges.size(); i++) {
+            if (exchanges.get(i).getOffsetMicros() < exchanges.get(i - 1).getOffsetMicros()) {
+                inversions++;
+            }
+        }
+        return inversions;
+    }
+
+    @Test
+    @Story("varint и zigzag")
+    void varIntRoundTrip() throws IOException {
+        long[] values = {0, 1, -1, 63, -64, 127, 128, 300, -300, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                Long.MAX_VALUE, Long.MIN_VALUE};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (long v : values) {
+            writeZigZag(out, v);
+            if (v >= 0) {
+                writeVarLong(out, v);
+            }
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (long v : values) {
+            assertThat(readZigZag(in), equalTo(v));
+            if (v >= 0) {
+                assertThat(readVarLong(in), equalTo(v));
+            }
+        }
+        assertThat(in.available(), equalTo(0));
+    }
+
+    @Test
+    @Story("Поля записей и словарь сегмента")
+    void readFieldsAndDictionary() throws IOException {
+        Path file = dir.resolve("fields.bin");
+        appendSegment(file, List.of(
+                new Exchange(0, 100, "POST", "products", List.of(), "{\"title\":\"Молоко\"}", 201, 20442),
+                new Exchange(50, 100, "GET", "products/{id}", List.of("20442"), null, 200, 0),
+                new Exchange(400, 100, "PUT", "products", List.of(), "{\"id\":20442}", 200, 0),
+                new Exchange(450, 100, "GET", "products/{id}", List.of("20443"), null, 404, 0)));
+
+        List<RecordedExchange> read = readAll(file, 0);
+
+        assertThat(read, hasSize(4));
+        RecordedExchange post = read.get(0);
+        assertThat(post.getMethod(), equalTo("POST"));
+        assertThat(post.getTemplate(), equalTo("products"));
+        assertThat(post.getContentType(), equalTo("application/json"));
+        assertThat(new String(post.getBody(), StandardCharsets.UTF_8), equalTo("{\"title\":\"Молоко\"}"));
+        assertThat(post.getStatus(), equalTo(201));
+        assertThat(post.getCreatedId(), equalTo(20442L));
+        //Повторные строки - ссылки на словарь сегмента
+        RecordedExchange get = read.get(3);
+        assertThat(get.getOffsetMicros(), equalTo(450L));
+        assertThat(get.getMethod(), equalTo("GET"));
+        assertThat(get.getTemplate(), equalTo("products/{id}"));
+        assertThat(get.getPathParams(), contains("20443"));
+        assertThat(get.getContentType(), nullValue());
+        assertThat(get.getBody(), nullValue());
+        assertThat(get.getStatus(), equalTo(404));
+        assertThat(get.getLatencyMicros(), equalTo(100L));
+    }
+
+    @Severity(CRITICAL)
+    @Test
+    @Story("Записи в порядке отправки")
+    void readInSendOrder() throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        long maxLatency = 200_000;
+        Path file = dir.resolve("reorder.bin");
+        List<Exchange> first = randomExchanges(random, 20_000, maxLatency);
+        List<Exchange> second = randomExchanges(random, 20_000, maxLatency);
+        appendSegment(file, first);
+        appendSegment(file, second);
+
+        List<RecordedExchange> asWritten = readAll(file, 0);
+        List<RecordedExchange> ordered = readAll(file, maxLatency);
+
+        //Без окна - порядок завершения, как в файле
+        assertThat(inversions(asWritten), greaterThan(0L));
+        assertThat(ordered, hasSize(40_000));
+        assertThat(inversions(ordered), equalTo(0L));
+        //Второй сегмент отсчитывается от конца первого
+        long[] expected = new long[40_000];
+        long firstEnd = first.get(first.size() - 1).offset;
+        for (int i = 0; i < 20_000; i++) {
+            expected[i] = first.get(i).offset;
+            expected[20_000 + i] = firstEnd + second.get(i).offset;
+        }
+        long[] actual = ordered.stream().mapToLong(RecordedExchange::getOffsetMicros).toArray();
+        Arrays.sort(expected);
+        assertThat(Arrays.equals(actual, expected), is(true));
+    }
+
+    @Severity(MINOR)
+    @Test
+    @Story("Оборванная последняя запись")
+    void dropTruncatedRecord() throws IOException {
+        Path file = dir.resolve("truncated.bin");
+        appendSegment(file, List.of(
+                new Exchange(0, 10, "GET", "products", List.of(), null, 200, 0),
+                new Exchange(10, 10, "POST", "products", List.of(), "{\"title\":\"Milk\"}", 201, 1)));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        List<RecordedExchange> read = readAll(file, 0);
+
+        assertThat(read, hasSize(1));
+        assertThat(read.get(0).getMethod(), equalTo("GET"));
+    }
+}
@@ -1,41 +1,199 @@
 package ru.learnup.javaqa.tests;
 
+import com.github.javafaker.Faker;
 import com.google.common.collect.ImmutableMap;
-import io.qameta.allure.restassured.AllureRestAssured;
-import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
-import io.restassured.builder.ResponseSpecBuilder;
-import io.restassured.http.ContentType;
+import io.restassured.filter.log.ResponseLoggingFilter;
 import io.restassured.specification.RequestSpecification;
-import io.restassured.specification.ResponseSpecification;
 import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import lombok.SneakyThrows;
-import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.extension.ExtendWith;
+import ru.learnup.javaqa.api.CategoryApi;
+import ru.learnup.javaqa.api.ProductApi;
+import ru.learnup.javaqa.api.ResponseSpecs;
+import ru.learnup.javaqa.catalog.CategoryCatalog;
+import ru.learnup.javaqa.catalog.CategoryScanner;
+import ru.learnup.javaqa.client.AsyncMarketClient;
+import ru.learnup.javaqa.client.MarketClient;
+import ru.learnup.javaqa.client.RestAssuredMarketClient;
+import ru.learnup.javaqa.dto.DtoMapper;
+import ru.learnup.javaqa.enums.CategoryType;
+import ru.learnup.javaqa.fixtures.CleanupQueue;
+import ru.learnup.javaqa.generators.RandomData;
+import ru.learnup.javaqa.fixtures.ProductFixturePool;
+import ru.learnup.javaqa.http.ConnectionPool;
+import ru.learnup.javaqa.logging.AllureExchangeFilter;
+import ru.learnup.javaqa.logging.BufferingLogFilter;
+import ru.learnup.javaqa.logging.LogMode;
+import ru.learnup.javaqa.logging.MappedExchangeLog;
+import ru.learnup.javaqa.metrics.LatencyFilter;
+import ru.learnup.javaqa.metrics.LatencyRecorder;
+import ru.learnup.javaqa.metrics.LatencySlo;
+import ru.learnup.javaqa.metrics.SloMode;
+import ru.learnup.javaqa.replay.WorkloadRecorder;
+import ru.learnup.javaqa.stub.MarketStub;
 
+import static io.restassured.filter.log.LogDetail.ALL;
+import static ru.learnup.javaqa.generators.Alphabet.*;
 import static io.restassured.filter.log.LogDetail.BODY;
 import static io.restassured.filter.log.LogDetail.HEADERS;
 import static io.restassured.filter.log.LogDetail.METHOD;
+import static io.restassured.filter.log.LogDetail.STATUS;
 import static io.restassured.filter.log.LogDetail.URI;
-import static org.hamcrest.CoreMatchers.containsStringIgnoringCase;
 import static com.github.automatedowl.tools.AllureEnvironmentWriter.allureEnvironmentWriter;
 
+//Все спеки собираются один раз на JVM и дальше только читаются: классы и тесты могут выполняться параллельно
+@ExtendWith({LogOnFailureExtension.class, RandomSeedExtension.class, CleanupExtension.class, SloExtension.class})
 public abstract class BaseTest {
 
-    static Properties properties = new Properties();
-    static RequestSpecification logReqSpec;
-    static ResponseSpecification resSpec;
+    protected static final Properties properties = loadProperties();
 
-    public static ResponseSpecification confirmDeleteResSpec;
-    public static ResponseSpecification deleteResSpec;
-    public static ResponseSpecification categoriesResSpec;
-    public static ResponseSpecification productsResSpec;
+    //Зерно случайных данных прогона: для повтора упавшего теста с теми же данными -Drandom.seed=<зерно из лога>
+    protected static final long randomSeed = initRandomSeed();
+
+    //Адрес стенда: удаленный из application.properties или встроенная заглушка (-Dstub=true)
+    protected static final String baseUrl = resolveBaseUrl();
+
+    //SLO задержки по эндпоинтам из slo.* (режим - slo.mode); проверяются SloExtension
+    protected static final LatencySlo slo = installLatencySlo();
+
+    //Задержки всех REST-вызовов прогона; сводка пишется в latency.report при завершении JVM
+    protected static final LatencyRecorder latency = new LatencyRecorder(slo);
+
+    //Один пул keep-alive соединений на все тесты JVM; сводка пишется в pool.report при завершении JVM
+    protected static final ConnectionPool pool = ConnectionPool.builder()
+            .maxTotal(Integer.parseInt(property("pool.maxTotal")))
+            .maxPerRoute(Integer.parseInt(property("pool.maxPerRoute")))
+            .connectTimeout(Integer.parseInt(property("pool.connectTimeout")))
+            .readTimeout(Integer.parseInt(property("pool.readTimeout")))
+            .idleTimeout(Integer.parseInt(property("pool.idleTimeout")))
+            .build();
+
+    //Подробность логирования: full, on_failure или off (-Dlog.mode=off)
+    protected static final LogMode logMode = LogMode.of(property("log.mode"));
+
+    //Журнал всех обменов прогона в отображенных в память сегментах (capture.dir пусто - без журнала)
+    protected static final MappedExchangeLog capture = openCapture();
+
+    //Вложения Allure с обрезкой тел и без повторов; обмены упавших тестов прикладывает LogOnFailureExtension
+    static final AllureExchangeFilter allureFilter = AllureExchangeFilter.builder()
+            .mode(LogMode.of(property("attach.mode")))
+            .maxBodyChars(Integer.parseInt(property("attach.maxBody")))
+            .maxPerTest(Integer.parseInt(property("attach.maxPerTest")))
+            .maxTotalBytes(Long.parseLong(property("attach.maxTotal")) * 1024 * 1024)
+            .capture(capture)
+            .build();
+
+    //Запись всех обменов прогона для повтора WorkloadReplayer: -Drecord.file=target/workload.bin
+    protected static final WorkloadRecorder recorder = openRecorder();
+
+    static final RequestSpecification logReqSpec = withRecording(withLogging(new RequestSpecBuilder()
+            .setBaseUri(baseUrl)
+            .setConfig(pool.config().objectMapperConfig(DtoMapper.INSTANCE.config()))
+            .addFilter(allureFilter)
+            .addFilter(new LatencyFilter(latency))))
+            .build();
+
+    //Пул без буферизации тел для больших ответов, которые разбираются потоково
+    protected static final ConnectionPool streamingPool = ConnectionPool.builder()
+            .maxTotal(Integer.parseInt(property("pool.maxPerRoute")))
+            .maxPerRoute(Integer.parseInt(property("pool.maxPerRoute")))
+            .connectTimeout(Integer.parseInt(property("pool.connectTimeout")))
+            .readTimeout(Integer.parseInt(property("pool.readTimeout")))
+            .idleTimeout(Integer.parseInt(property("pool.idleTimeout")))
+            .streaming(true)
+            .build();
+
+    //Без Allure и логирования тела: любой фильтр, читающий тело, загрузил бы его в память целиком.
+    //Задержка здесь - время до заголовков ответа, чтение тела в нее не входит.
+    static final RequestSpecification streamReqSpec = withRecording(withStatusLogging(new RequestSpecBuilder()
+            .setBaseUri(baseUrl)
+            .setConfig(streamingPool.config().objectMapperConfig(DtoMapper.INSTANCE.config()))
+            .addFilter(new LatencyFilter(latency))))
+            .build();
+
+    //Создание и удаление тестовых данных вне тестов: без Allure и логирования
+    static final RequestSpecification fixtureReqSpec = withRecording(new RequestSpecBuilder()
+            .setBaseUri(baseUrl)
+            .setConfig(pool.config().objectMapperConfig(DtoMapper.INSTANCE.config()))
+            .addFilter(new LatencyFilter(latency)))
+            .build();
+
+    //Клиенты контроллеров поверх спеков выше: созданы один раз и используются всеми тестами параллельно
+    protected static final ProductApi productApi = new ProductApi(logReqSpec, ResponseSpecs.HTTP_1_1);
+
+    protected static final ProductApi streamingProductApi = new ProductApi(streamReqSpec, ResponseSpecs.HTTP_1_1);
+
+    protected static final CategoryApi categoryApi = new CategoryApi(logReqSpec, ResponseSpecs.HTTP_1_1);
+
+    static final ProductApi fixtureApi = new ProductApi(fixtureReqSpec);
+
+    //Очередь фонового удаления созданных тестами продуктов; ожидается и отчитывается CleanupExtension в конце прогона
+    protected static final CleanupQueue cleanup = CleanupQueue.builder()
+            .api(fixtureApi)
+            .workers(Integer.parseInt(property("cleanup.workers")))
+            .maxAttempts(Integer.parseInt(property("cleanup.maxAttempts")))
+            .retryDelayMillis(Long.parseLong(property("cleanup.retryDelay")))
+            .verifyRate(Double.parseDouble(property("cleanup.verifyRate")))
+            .build();
+
+    //Две реализации MarketClient поверх тех же DTO: блокирующая RestAssured и неблокирующая java.net.http
+    protected static final MarketClient restAssuredClient = new RestAssuredMarketClient(productApi, categoryApi);
+
+    protected static final MarketClient asyncClient = AsyncMarketClient.builder()
+            .baseUrl(baseUrl)
+            .connectTimeout(Duration.ofMillis(Integer.parseInt(property("pool.connectTimeout"))))
+            .requestTimeout(Duration.ofMillis(Integer.parseInt(property("pool.readTimeout"))))
+            .latency(latency)
+            .build();
+
+    //Категории стенда для IsCategoryExists и assertCategoryEquals (catalog.enabled=false - только CategoryType)
+    protected static final CategoryCatalog categories = installCategoryCatalog();
+
+    static {
+        setAllureEnvironment();
+        Runtime.getRuntime().addShutdownHook(new Thread(BaseTest::writeRunSummary));
+    }
+
+    //Пул продуктов класса: size заранее созданных продуктов, после close() они удаляются очередью cleanup
+    protected static ProductFixturePool productFixtures(int size) {
+        return ProductFixturePool.builder()
+                .api(fixtureApi)
+                .cleanup(cleanup)
+                .size(size)
+                .concurrency(Integer.parseInt(property("fixtures.concurrency")))
+                .build()
+                .fill();
+    }
+
+    //Faker загружает словари при создании: один экземпляр на поток вместо нового на каждый тест.
+    //Его Random перед каждым тестом получает зерно теста (RandomSeedExtension), как и RandomData
+    private static final ThreadLocal<Random> fakerRandoms = ThreadLocal.withInitial(() -> new Random(RandomData.current().nextLong()));
+    private static final ThreadLocal<Faker> fakers = ThreadLocal.withInitial(() -> new Faker(fakerRandoms.get()));
+
+    public static Faker faker() {
+        return fakers.get();
+    }
+
+    static void reseedFaker(long seed) {
+        fakerRandoms.get().setSeed(seed);
+    }
 
     //Генератор случайного инт32
     public Integer randomInt(){
-        return (int)(Math.random() * Integer.MAX_VALUE + 1);
+        return RandomData.positiveInt();
     }
 
     //Набор аскии-символов для проверок
@@ -58,133 +216,185 @@ public abstract class BaseTest {
 
     //Генератор числовой строки заданной длины
     public String numericCheck(int length) {
-        char[] charArr = new char[length];
-        for (int i = 0; i < charArr.length; i++) {
-            char ch = (char) (Math.random() * (57 - 48 + 1) + 48);
-            charArr[i] = ch;
-        }
-        return new String(charArr);
+        return RandomData.string(NUMERIC, length);
     }
 
     //Генератор шестнадцатеричной числовой строки заданной длины
     public String hexCheck(int length) {
-        char[] charArr = new char[length];
-        for (int i = 0; i < charArr.length; i++) {
-            char ch = (char) (Math.random() * (70 - 48 + 1) + 48);
-            if (ch >= 58 && ch <= 64) {
-                i -= 1;
-                continue;
-            }
-            charArr[i] = ch;
-        }
-        return new String(charArr);
+        return RandomData.string(HEX, length);
     }
 
     //Генератор алфавитно-числовой строки заданной длины
     public String alphanumericCheck(int length) {
-        char[] charArr = new char[length];
-        for (int i = 0; i < charArr.length; i++) {
-            char ch = (char) (Math.random() * (122 - 48 + 1) + 48);
-            if ((ch >= 90 && ch <= 97) || (ch >= 58 && ch <= 64)) {
-                i -= 1;
-                continue;
-            }
-            charArr[i] = ch;
-        }
-        return new String(charArr);
+        return RandomData.string(ALPHANUMERIC, length);
     }
 
     //Генератор строки на латинице заданной длины
     public String latinCheck(int length) {
-        char[] charArr = new char[length];
-        for (int i = 0; i < charArr.length; i++) {
-            char ch = (char) (Math.random() * (122 - 65 + 1) + 65);
-            if (ch >= 90 && ch <= 97) {
-                i -= 1;
-                continue;
-            }
-            charArr[i] = ch;
-        }
-        return new String(charArr);
+        return RandomData.string(LATIN, length);
     }
 
     //Генератор строки на кириллице заданной длины
     public String cyrillicCheck(int length) {
-        char[] charArr = new char[length];
-        for (int i = 0; i < charArr.length; i++) {
-            charArr[i] = (char)(Math.random() * (1103 - 1040 + 1) + 1040);
-        }
-        return new String(charArr);
+        return RandomData.string(CYRILLIC, length);
     }
 
     //Генератор строки их иероглифов заданной длины
     public String hieroglyphCheck(int length) {
-        char[] charArr = new char[length];
-        for (int i = 0; i < charArr.length; i++) {
-            charArr[i] = (char)(Math.random() * (19000 - 18500 + 1) + 18500);
-        }
-        return new String(charArr);
+        return RandomData.string(HIEROGLYPH, length);
     }
 
     //Генератор строки из расширенного Юникода заданной длины
     public String extUnicodeCheck(int length) {
-        char[] charArr = new char[length];
-        for (int i = 0; i < charArr.length; i++) {
-            charArr[i] = (char)(Math.random() * (130000 - 125000 + 1) + 125000);
-        }
-        return new String(charArr);
+        return RandomData.string(EXT_UNICODE, length);
     }
 
     @SneakyThrows
-    @BeforeAll
-    static void beforeAll() {
-        RestAssured.filters(new AllureRestAssured());
-
-        properties.load(new FileInputStream("src/test/resources/application.properties"));
-        RestAssured.baseURI = properties.getProperty("baseURL");
+    private static Properties loadProperties() {
+        Properties props = new Properties();
+        try (FileInputStream in = new FileInputStream("src/test/resources/application.properties")) {
+            props.load(in);
+        }
+        return props;
+    }
 
-        setAllureEnvironment();
+    //Логирование вместо prettyPeek() в каждом шаге: ответ печатается до проверки спеков, так что виден и при провале
+    private static RequestSpecBuilder withLogging(RequestSpecBuilder builder) {
+        switch (logMode) {
+            case FULL:
+                return builder
+                        .log(METHOD)
+                        .log(URI)
+                        .log(BODY)
+                        .log(HEADERS)
+                        .addFilter(new ResponseLoggingFilter(ALL, true, System.out));
+            case ON_FAILURE:
+                return builder.addFilter(new BufferingLogFilter());
+            default:
+                return builder;
+        }
+    }
 
-        logReqSpec = new RequestSpecBuilder()
+    private static RequestSpecBuilder withStatusLogging(RequestSpecBuilder builder) {
+        if (logMode != LogMode.FULL) {
+            return builder;
+        }
+        return builder
                 .log(METHOD)
                 .log(URI)
-                .log(BODY)
-                .log(HEADERS)
-                .build();
+                .addFilter(new ResponseLoggingFilter(STATUS, true, System.out));
+    }
 
-        resSpec = new ResponseSpecBuilder()
-                .expectStatusLine(containsStringIgnoringCase("HTTP/1.1"))
-                .build();
+    private static RequestSpecBuilder withRecording(RequestSpecBuilder builder) {
+        return recorder == null ? builder : builder.addFilter(recorder);
+    }
 
-        categoriesResSpec =  new ResponseSpecBuilder()
-                .expectContentType(ContentType.JSON)
-                .expectStatusLine(containsStringIgnoringCase("HTTP/1.1"))
-                .expectStatusCode(200)
-                .build();
+    //Системное свойство JVM имеет приоритет над application.properties
+    protected static String property(String key) {
+        return System.getProperty(key, properties.getProperty(key));
+    }
 
-        productsResSpec = new ResponseSpecBuilder()
-                .expectContentType(ContentType.JSON)
-                .expectStatusLine(containsStringIgnoringCase("HTTP/1.1"))
-                .expectStatusCode(200)
-                .build();
+    //Известные идентификаторы категорий и найденные сканером категорий, если он запускался
+    @SneakyThrows
+    private static Set<Long> categoryIds() {
+        Set<Long> ids = Arrays.stream(CategoryType.values()).map(CategoryType::getId).collect(Collectors.toCollection(TreeSet::new));
+        Path scanned = Paths.get(property("scan.checkpoint"));
+        if (Files.exists(scanned)) {
+            ids.addAll(CategoryScanner.readCategories(scanned).keySet());
+        }
+        return ids;
+    }
+
+    private static long initRandomSeed() {
+        String seed = property("random.seed");
+        if (seed != null && !seed.isBlank()) {
+            RandomData.seed(Long.parseLong(seed.trim()));
+        }
+        return RandomData.seed();
+    }
+
+    //Пороги из файла свойств, поверх них - переданные через -Dslo.*
+    private static LatencySlo installLatencySlo() {
+        SloMode mode = SloMode.of(property("slo.mode"));
+        if (mode == SloMode.OFF) {
+            return null;
+        }
+        Properties merged = new Properties();
+        merged.putAll(properties);
+        merged.putAll(System.getProperties());
+        LatencySlo slo = LatencySlo.fromProperties(merged, "slo.", mode);
+        LatencySlo.install(slo);
+        return slo;
+    }
 
-        //Спеки для метода-уборщика
-        deleteResSpec = new ResponseSpecBuilder()
-                .expectStatusCode(200)
+    @SneakyThrows
+    private static MappedExchangeLog openCapture() {
+        String dir = property("capture.dir");
+        if (dir == null || dir.isBlank()) {
+            return null;
+        }
+        return MappedExchangeLog.builder()
+                .directory(Paths.get(dir))
+                .segmentSize(Integer.parseInt(property("capture.segmentSize")) * 1024 * 1024)
                 .build();
+    }
 
-        confirmDeleteResSpec = new ResponseSpecBuilder()
-                .expectStatusCode(404)
+    @SneakyThrows
+    private static WorkloadRecorder openRecorder() {
+        String file = property("record.file");
+        return file == null || file.isBlank() ? null : new WorkloadRecorder(Paths.get(file));
+    }
+
+    private static CategoryCatalog installCategoryCatalog() {
+        if (!Boolean.parseBoolean(property("catalog.enabled"))) {
+            return null;
+        }
+        CategoryCatalog catalog = CategoryCatalog.builder()
+                .client(asyncClient)
+                .ids(categoryIds())
+                .ttl(Duration.ofSeconds(Long.parseLong(property("catalog.ttl"))))
+                .refreshInterval(Duration.ofSeconds(Long.parseLong(property("catalog.refresh"))))
+                .maxSize(Integer.parseInt(property("catalog.maxSize")))
                 .build();
+        if (catalog.getLastError() != null) {
+            System.out.println("=== Category catalog not loaded, CategoryType is used: " + catalog.getLastError());
+        }
+        CategoryCatalog.install(catalog);
+        return catalog;
+    }
 
-        RestAssured.requestSpecification = logReqSpec;
-        RestAssured.responseSpecification = resSpec;
+    @SneakyThrows
+    private static String resolveBaseUrl() {
+        if (!Boolean.parseBoolean(property("stub"))) {
+            return property("baseURL");
+        }
+        //Без TCP_NODELAY заголовки и тело ответа заглушки уходят разными сегментами и ждут delayed ACK клиента (~40 мс).
+        //Свойство JVM читается при первом создании HttpServer, поэтому задается до запуска заглушки
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        MarketStub stub = MarketStub.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        return stub.getBaseUrl();
+    }
+
+    @SneakyThrows
+    private static void writeRunSummary() {
+        latency.writeSummary(Paths.get(property("latency.report")));
+        pool.writeSummary(Paths.get(property("pool.report")));
+        allureFilter.writeSummary(Paths.get(property("attach.report")));
+        if (recorder != null) {
+            recorder.close();
+        }
+        if (capture != null) {
+            capture.close();
+        }
     }
 
     protected static void setAllureEnvironment() {
         allureEnvironmentWriter(
                 ImmutableMap.<String, String>builder()
-                        .put("URL",properties.getProperty("baseURL"))
+                        .put("URL",baseUrl)
                         .build());
     }
 }
\ No newline at end of file
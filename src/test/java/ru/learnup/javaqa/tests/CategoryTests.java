@@ -2,18 +2,21 @@ package ru.learnup.javaqa.tests;
 
 import io.qameta.allure.*;
 import io.restassured.response.Response;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import ru.learnup.javaqa.catalog.CategoryScanner;
+import ru.learnup.javaqa.catalog.ScanResult;
 import ru.learnup.javaqa.dto.Category;
 import ru.learnup.javaqa.enums.CategoryType;
 
-import java.util.stream.Stream;
+import java.io.IOException;
+import java.nio.file.Paths;
 
 import static io.qameta.allure.SeverityLevel.*;
-import static io.restassured.RestAssured.given;
-import static ru.learnup.javaqa.Endpoints.CATEGORY_ID_ENDPOINT;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
 import static ru.learnup.javaqa.enums.CategoryType.*;
 import static ru.learnup.javaqa.asserts.CommonAsserts.*;
 
@@ -26,42 +29,42 @@ public class CategoryTests extends BaseTest{
 
     @Step("Отправить GET-запрос на контроллер категорий")
     private Category getCategoryOK() {
-        return given()
-                .response()
-                .spec(categoriesResSpec)
-                .when()
-                .get(CATEGORY_ID_ENDPOINT, cat.getId())
-                .prettyPeek()
-                .body()
-                .as(Category.class);
+        return categoryApi.find(cat.getId());
     }
 
     //Отказ от использования спеков для адекватного логирования: при провале валидации не печатался ответ
     @Step("Отправить GET-запрос на контроллер категорий")
     private Response getCategoryErr(Object id) {
-        return given()
-                .when()
-                .get(CATEGORY_ID_ENDPOINT, id)
-                .prettyPeek();
+        return categoryApi.get(id);
     }
 
-    public static Stream<Integer> scan() {
-        Integer[] arr = new Integer[1000];
-        for (int i = 0; i < arr.length; i++) {
-            arr[i] = i;
-        }
-        return Stream.of(arr);
-    }
-
-    //Для поиска категорий
-    @Disabled
-    @ParameterizedTest
-    @MethodSource("scan")
+    //Поиск категорий стенда запускается только явно: mvn test -Dscan=true -Dtest=CategoryTests#getCategoryScan
+    //Прерванный перебор продолжается с scan.checkpoint; найденные категории подхватывает каталог категорий
+    @Severity(MINOR)
+    @Test
+    @EnabledIfSystemProperty(named = "scan", matches = "true")
     @Story("Сканер категорий")
-    void getCategoryScan(int num) {
-        Response res = getCategoryErr(num);
-
-        assertNotFound(res);
+    void getCategoryScan() throws IOException, InterruptedException {
+        ScanResult result = CategoryScanner.builder()
+                .client(asyncClient)
+                .from(Long.parseLong(property("scan.from")))
+                .to(Long.parseLong(property("scan.to")))
+                .maxInFlight(Integer.parseInt(property("scan.maxInFlight")))
+                .initialRate(Double.parseDouble(property("scan.initialRate")))
+                .minRate(Double.parseDouble(property("scan.minRate")))
+                .maxRate(Double.parseDouble(property("scan.maxRate")))
+                .increment(Double.parseDouble(property("scan.increment")))
+                .maxAttempts(Integer.parseInt(property("scan.maxAttempts")))
+                .stopAfterMisses(Integer.parseInt(property("scan.stopAfterMisses")))
+                .checkpointEvery(Integer.parseInt(property("scan.checkpointEvery")))
+                .checkpoint(Paths.get(property("scan.checkpoint")))
+                .build()
+                .scan();
+
+        String summary = result + "\n" + result.toEnumConstants();
+        System.out.println(summary);
+        Allure.addAttachment("Category scan", "text/plain", summary);
+        assertThat(result.getFailed(), empty());
     }
 
     @Severity(BLOCKER)
@@ -317,10 +320,7 @@ public class CategoryTests extends BaseTest{
     @Test
     @Story("Получить категории корневого адреса контроллера")
     void getCategoryRoot() {
-        Response res = given()
-                .when()
-                .get("categories")
-                .prettyPeek();
+        Response res = categoryApi.getRoot();
 
         assertNotFound(res);
     }
@@ -0,0 +1,34 @@
+package ru.learnup.javaqa.tests;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.ExtensionContext.Store.CloseableResource;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import static ru.learnup.javaqa.tests.BaseTest.cleanup;
+import static ru.learnup.javaqa.tests.BaseTest.property;
+
+//Ожидание очереди CleanupQueue один раз на прогон: ресурс в корневом хранилище JUnit закрывается после
+//всех тестовых классов, но до завершения JVM (и до остановки заглушки). Неудаленные продукты - в cleanup.report,
+//и прогон с ними падает.
+public class CleanupExtension implements BeforeAllCallback {
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(Namespace.GLOBAL)
+                .getOrComputeIfAbsent(CleanupExtension.class, k -> (CloseableResource) CleanupExtension::drain);
+    }
+
+    private static void drain() throws Throwable {
+        boolean empty = cleanup.drain(Long.parseLong(property("cleanup.timeout")), TimeUnit.SECONDS);
+        cleanup.writeSummary(Paths.get(property("cleanup.report")));
+        //Исключение при закрытии ресурса JUnit засчитывает прогону (в отчете surefire - "JUnit Jupiter"):
+        //продукты, оставшиеся на стенде, роняют прогон, а не только печатаются
+        if (!empty || !cleanup.getLeaked().isEmpty()) {
+            throw new AssertionError("Not all created products were deleted\n" + cleanup.summary());
+        }
+    }
+}
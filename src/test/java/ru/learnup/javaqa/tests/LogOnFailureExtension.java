@@ -0,0 +1,51 @@
+package ru.learnup.javaqa.tests;
+
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestWatcher;
+import ru.learnup.javaqa.logging.AllureExchangeFilter;
+import ru.learnup.javaqa.logging.BufferingLogFilter;
+
+import java.util.Optional;
+
+import static ru.learnup.javaqa.tests.BaseTest.allureFilter;
+
+//Печать накопленных BufferingLogFilter обменов для упавшего теста (режим log.mode=on_failure)
+//и вложение в Allure обменов, накопленных AllureExchangeFilter (attach.mode=on_failure).
+//Тест вместе с @BeforeEach/@AfterEach выполняется в одном потоке, поэтому буфер потока - это буфер теста.
+public class LogOnFailureExtension implements BeforeEachCallback, TestWatcher {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        BufferingLogFilter.clear();
+        AllureExchangeFilter.clear();
+    }
+
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        String log = BufferingLogFilter.drain();
+        if (!log.isEmpty()) {
+            System.out.println("=== " + context.getDisplayName() + " failed: " + cause + "\n" + log);
+        }
+        allureFilter.attachBuffered();
+        AllureExchangeFilter.clear();
+    }
+
+    @Override
+    public void testSuccessful(ExtensionContext context) {
+        BufferingLogFilter.clear();
+        AllureExchangeFilter.clear();
+    }
+
+    @Override
+    public void testAborted(ExtensionContext context, Throwable cause) {
+        BufferingLogFilter.clear();
+        AllureExchangeFilter.clear();
+    }
+
+    @Override
+    public void testDisabled(ExtensionContext context, Optional<String> reason) {
+        BufferingLogFilter.clear();
+        AllureExchangeFilter.clear();
+    }
+}
@@ -0,0 +1,25 @@
+package ru.learnup.javaqa.tests;
+
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestWatcher;
+import ru.learnup.javaqa.generators.RandomData;
+
+//Свои случайные данные у каждого теста: генераторы потока (RandomData и Random под faker()) перед тестом
+//получают зерно из зерна прогона и идентификатора теста. Для упавшего теста зерно прогона печатается и добавляется параметром в Allure.
+public class RandomSeedExtension implements BeforeEachCallback, TestWatcher {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        long seed = RandomData.seedFor(context.getUniqueId());
+        RandomData.reseed(seed);
+        BaseTest.reseedFaker(seed);
+    }
+
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        System.out.println("=== " + context.getDisplayName() + " failed, replay with -Drandom.seed=" + RandomData.seed());
+        Allure.parameter("random.seed", RandomData.seed());
+    }
+}
@@ -0,0 +1,107 @@
+package ru.learnup.javaqa.tests;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Label;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StatusDetails;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.model.TestResult;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.ExtensionContext.Store.CloseableResource;
+import ru.learnup.javaqa.metrics.LatencySlo;
+import ru.learnup.javaqa.metrics.SloMode;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static ru.learnup.javaqa.tests.BaseTest.latency;
+import static ru.learnup.javaqa.tests.BaseTest.property;
+
+//Проверка SLO задержки: запросы теста дольше slo.max роняют тест (slo.mode=fail) или прикладываются к нему (flag).
+//В конце прогона - отдельный результат "Latency SLO" в Allure с нарушениями max и перцентилей по эндпоинтам
+//и текстовая сводка в slo.report.
+public class SloExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(Namespace.GLOBAL)
+                .getOrComputeIfAbsent(SloExtension.class, k -> (CloseableResource) SloExtension::report);
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        LatencySlo.clearThread();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        LatencySlo slo = LatencySlo.current();
+        List<String> breaches = LatencySlo.drainThread();
+        if (slo == null || breaches.isEmpty()) {
+            return;
+        }
+        String message = "SLO breaches in " + context.getDisplayName() + ":\n  " + String.join("\n  ", breaches);
+        if (slo.getMode() == SloMode.FAIL) {
+            throw new AssertionError(message);
+        }
+        System.out.println("=== " + message);
+        Allure.addAttachment("SLO breaches", "text/plain", message);
+    }
+
+    private static void report() throws Throwable {
+        LatencySlo slo = LatencySlo.current();
+        if (slo == null) {
+            return;
+        }
+        String summary = slo.summary(latency);
+        Path file = Paths.get(property("slo.report"));
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, summary.getBytes(StandardCharsets.UTF_8));
+        writeAllureResult(slo, slo.breaches(latency), summary);
+    }
+
+    //Результат вне тестовых классов: шаг на каждый эндпоинт с нарушениями, вложенные шаги - сами нарушения
+    private static void writeAllureResult(LatencySlo slo, Map<String, List<String>> breaches, String summary) {
+        Status status = breaches.isEmpty() ? Status.PASSED : slo.getMode() == SloMode.FAIL ? Status.FAILED : Status.BROKEN;
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String uuid = UUID.randomUUID().toString();
+        lifecycle.scheduleTestCase(new TestResult()
+                .setUuid(uuid)
+                .setHistoryId("latency-slo")
+                .setName("Latency SLO")
+                .setFullName(SloExtension.class.getName() + ".latencySlo")
+                .setStatus(status)
+                .setStatusDetails(new StatusDetails().setMessage(breaches.isEmpty()
+                        ? "No SLO breaches" : "SLO breached on " + breaches.keySet()))
+                .setLabels(List.of(
+                        new Label().setName("epic").setValue("SLO задержки"),
+                        new Label().setName("feature").setValue("Latency SLO"),
+                        new Label().setName("suite").setValue("Latency SLO"))));
+        lifecycle.startTestCase(uuid);
+        breaches.forEach((endpoint, list) -> {
+            String endpointStep = UUID.randomUUID().toString();
+            lifecycle.startStep(uuid, endpointStep, new StepResult().setName(endpoint).setStatus(status));
+            for (String breach : list) {
+                String step = UUID.randomUUID().toString();
+                lifecycle.startStep(endpointStep, step, new StepResult().setName(breach).setStatus(status));
+                lifecycle.stopStep(step);
+            }
+            lifecycle.stopStep(endpointStep);
+        });
+        lifecycle.addAttachment("SLO summary", "text/plain", "txt", summary.getBytes(StandardCharsets.UTF_8));
+        lifecycle.stopTestCase(uuid);
+        lifecycle.writeTestCase(uuid);
+    }
+}
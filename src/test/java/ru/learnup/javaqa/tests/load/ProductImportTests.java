@@ -0,0 +1,87 @@
+package ru.learnup.javaqa.tests.load;
+
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import ru.learnup.javaqa.bulk.BulkImporter;
+import ru.learnup.javaqa.bulk.ImportReport;
+import ru.learnup.javaqa.dto.DtoMapper;
+import ru.learnup.javaqa.dto.Product;
+import ru.learnup.javaqa.enums.CategoryType;
+import ru.learnup.javaqa.generators.RandomData;
+import ru.learnup.javaqa.tests.BaseTest;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static ru.learnup.javaqa.enums.CategoryType.*;
+
+//Наполнение стенда продуктами запускается только явно:
+//mvn test -Dimport=true -Dtest=ProductImportTests [-Dimport.file=target/import/products.csv]
+//Если import.file нет, он создается из import.generate случайных продуктов в формате по расширению (.csv, .ndjson, .jsonl)
+//Созданные продукты не удаляются: их идентификаторы - в import.output
+@Epic("Нагрузка на контроллер продуктов")
+@Feature("Bulk import")
+@Severity(NORMAL)
+public class ProductImportTests extends BaseTest {
+
+    private static final CategoryType[] CATEGORIES = {FOOD, ELECTRONIC, FURNITURE};
+
+    @Step("Создать файл из {count} случайных продуктов")
+    private static void generate(Path file, int count) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean csv = name.endsWith(".csv");
+        if (!csv && !name.endsWith(".ndjson") && !name.endsWith(".jsonl")) {
+            throw new IllegalArgumentException("Can't generate " + file + ": expected .csv, .ndjson or .jsonl");
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (csv) {
+                out.write("title,price,categoryTitle\n");
+            }
+            for (int i = 0; i < count; i++) {
+                Product p = Product.builder()
+                        .title("import-" + i)
+                        .price(RandomData.nextInt(1, 100_000))
+                        .categoryTitle(CATEGORIES[RandomData.nextInt(0, CATEGORIES.length)].getName())
+                        .build();
+                out.write(csv ? p.getTitle() + "," + p.getPrice() + "," + p.getCategoryTitle()
+                        : DtoMapper.INSTANCE.writer(Product.class).writeValueAsString(p));
+                out.write('\n');
+            }
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "import", matches = "true")
+    @Story("Создать продукты из файла")
+    void importProducts() throws IOException, InterruptedException {
+        Path input = Paths.get(property("import.file"));
+        if (!Files.exists(input)) {
+            generate(input, Integer.parseInt(property("import.generate")));
+        }
+
+        ImportReport report = BulkImporter.builder()
+                .client(asyncClient)
+                .maxInFlight(Integer.parseInt(property("import.maxInFlight")))
+                .maxAttempts(Integer.parseInt(property("import.maxAttempts")))
+                .retryDelayMillis(Long.parseLong(property("import.retryDelay")))
+                .output(Paths.get(property("import.output")))
+                .build()
+                .run(input);
+
+        System.out.println(report);
+        Allure.addAttachment("Import report", "text/plain", report.toString());
+        assertThat(report.toString(), report.getFailed(), equalTo(0L));
+        assertThat(report.toString(), report.getUnconfirmed(), equalTo(0L));
+        assertThat(report.toString(), report.getUnrecorded(), equalTo(0L));
+    }
+}
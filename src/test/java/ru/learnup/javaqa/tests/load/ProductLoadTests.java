@@ -0,0 +1,45 @@
+package ru.learnup.javaqa.tests.load;
+
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import ru.learnup.javaqa.load.LoadConfig;
+import ru.learnup.javaqa.load.LoadReport;
+import ru.learnup.javaqa.load.LoadRunner;
+import ru.learnup.javaqa.tests.BaseTest;
+
+import java.time.Duration;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+//Нагрузочный режим запускается только явно: mvn test -Dload=true -Dtest=ProductLoadTests
+@Epic("Нагрузка на контроллер продуктов")
+@Feature("Load Product")
+@Severity(NORMAL)
+public class ProductLoadTests extends BaseTest {
+
+    @Test
+    @EnabledIfSystemProperty(named = "load", matches = "true")
+    @Story("Смешанная нагрузка: создание, обновление, чтение, удаление")
+    void productMixedLoad() throws InterruptedException {
+        LoadConfig config = LoadConfig.builder()
+                .baseUrl(baseUrl)
+                .rate(Double.parseDouble(property("load.rate")))
+                .concurrency(Integer.parseInt(property("load.concurrency")))
+                .duration(Duration.ofSeconds(Long.parseLong(property("load.duration"))))
+                .maxQueued(Integer.parseInt(property("load.maxQueued")))
+                .build();
+
+        LoadReport report = new LoadRunner(config).run();
+
+        System.out.println(report);
+        Allure.addAttachment("Load report", "text/plain", report.toString());
+        assertThat(report.getTotalCount(), greaterThan(0L));
+        //Отброшенные из-за очереди запросы - тоже отказы сервера держать заданную скорость
+        assertThat("error rate", (double) (report.getTotalErrors() + report.getDropped())
+                        / (report.getTotalCount() + report.getDropped()),
+                lessThanOrEqualTo(Double.parseDouble(property("load.maxErrorRate"))));
+    }
+}
@@ -0,0 +1,48 @@
+package ru.learnup.javaqa.tests.load;
+
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import ru.learnup.javaqa.load.LoadReport;
+import ru.learnup.javaqa.load.ScenarioConfig;
+import ru.learnup.javaqa.load.ScenarioRunner;
+import ru.learnup.javaqa.load.VirtualThreads;
+import ru.learnup.javaqa.tests.BaseTest;
+
+import java.time.Duration;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+//Сценарный режим запускается только явно; для десятков тысяч пользователей - на Java 21:
+//mvn -Pjava21 test -Dsoak=true -Dtest=ProductSoakTests -Dsoak.users=10000
+//Каждый пользователь держит свое соединение: лимит открытых файлов (ulimit -n) должен быть больше soak.users
+@Epic("Нагрузка на контроллер продуктов")
+@Feature("Soak Product")
+@Severity(NORMAL)
+public class ProductSoakTests extends BaseTest {
+
+    @Test
+    @EnabledIfSystemProperty(named = "soak", matches = "true")
+    @Story("Жизненный цикл продукта: создание, чтение, обновление, категория, удаление")
+    void productLifecycleSoak() throws InterruptedException {
+        ScenarioConfig config = ScenarioConfig.builder()
+                .baseUrl(baseUrl)
+                .users(Integer.parseInt(property("soak.users")))
+                .duration(Duration.ofSeconds(Long.parseLong(property("soak.duration"))))
+                .rampUp(Duration.ofSeconds(Long.parseLong(property("soak.rampUp"))))
+                .build();
+
+        ScenarioRunner runner = new ScenarioRunner(config);
+        LoadReport report = runner.run();
+
+        String summary = (VirtualThreads.isAvailable() ? "virtual threads" : "platform threads")
+                + ", users=" + config.getUsers() + ", peak in flight=" + runner.getPeakInFlight() + "\n" + report;
+        System.out.println(summary);
+        Allure.addAttachment("Soak report", "text/plain", summary);
+        assertThat(report.getTotalCount(), greaterThan(0L));
+        assertThat("error rate", (double) report.getTotalErrors() / report.getTotalCount(),
+                lessThanOrEqualTo(Double.parseDouble(property("soak.maxErrorRate"))));
+    }
+}
@@ -0,0 +1,42 @@
+package ru.learnup.javaqa.tests.load;
+
+import io.qameta.allure.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import ru.learnup.javaqa.replay.ReplayReport;
+import ru.learnup.javaqa.replay.WorkloadReplayer;
+import ru.learnup.javaqa.tests.BaseTest;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+//Повтор записанной нагрузки запускается только явно. Запись - обычный прогон с -Drecord.file=target/workload.bin,
+//повтор: mvn test -Dreplay=true -Dtest=WorkloadReplayTests [-Dreplay.speed=10 | -Dreplay.speed=0]
+@Epic("Нагрузка на контроллер продуктов")
+@Feature("Replay Workload")
+@Severity(NORMAL)
+public class WorkloadReplayTests extends BaseTest {
+
+    @Test
+    @EnabledIfSystemProperty(named = "replay", matches = "true")
+    @Story("Повтор записанного прогона")
+    void replayRecordedWorkload() throws IOException, InterruptedException {
+        ReplayReport report = WorkloadReplayer.builder()
+                .baseUrl(baseUrl)
+                .speed(Double.parseDouble(property("replay.speed")))
+                .concurrency(Integer.parseInt(property("replay.concurrency")))
+                .connectTimeout(Integer.parseInt(property("pool.connectTimeout")))
+                .readTimeout(Integer.parseInt(property("pool.readTimeout")))
+                .build()
+                .replay(Paths.get(property("replay.file")));
+
+        System.out.println(report);
+        Allure.addAttachment("Replay report", "text/plain", report.toString());
+        assertThat(report.getFailed(), equalTo(0L));
+        assertThat(report.getNotSent(), equalTo(0L));
+    }
+}
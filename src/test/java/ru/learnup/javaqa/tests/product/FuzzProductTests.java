@@ -0,0 +1,127 @@
+package ru.learnup.javaqa.tests.product;
+
+import io.qameta.allure.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import ru.learnup.javaqa.client.ApiResponse;
+import ru.learnup.javaqa.fixtures.ProductFixturePool;
+import ru.learnup.javaqa.fuzz.*;
+import ru.learnup.javaqa.generators.RandomData;
+import ru.learnup.javaqa.tests.BaseTest;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+//Регрессия по корпусу фаззера - в каждом прогоне; генерация входов - только явно:
+//mvn test -Dfuzz=true -Dtest=FuzzProductTests [-Dfuzz.seed=<seed> -Dfuzz.cases=100000]
+//Найденные входы дописываются в fuzz.corpus; после разбора их переносят в src/test/resources/fuzz/corpus.ndjson
+@Epic("Тесты для контроллера продуктов")
+@Feature("Fuzz product payloads")
+@Severity(NORMAL)
+public class FuzzProductTests extends BaseTest {
+    private static final String CORPUS = "/fuzz/corpus.ndjson";
+    private static final int EXISTING_IDS = 8;
+
+    private static ProductFixturePool fixtures;
+
+    @BeforeAll
+    static void createFixtures() {
+        fixtures = productFixtures(EXISTING_IDS);
+    }
+
+    @AfterAll
+    static void deleteFixtures() {
+        fixtures.close();
+    }
+
+    static Stream<FuzzCase> corpus() throws IOException, URISyntaxException {
+        return FuzzCorpus.read(Paths.get(FuzzProductTests.class.getResource(CORPUS).toURI())).stream();
+    }
+
+    @Step("Отправить {c}")
+    private ApiResponse send(FuzzCase c) {
+        return c.getTarget().send(restAssuredClient, c.getPayload()).join();
+    }
+
+    @Severity(CRITICAL)
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("corpus")
+    @Story("Входы из корпуса фаззера")
+    void corpusRegression(FuzzCase c) {
+        Long leasedId = null;
+        if (c.isExistingId()) {
+            leasedId = fixtures.lease();
+            c.getPayload().setId(leasedId);
+        }
+        try {
+            ApiResponse res = send(c);
+            Long created = FuzzOracle.createdId(c, res);
+            if (created != null) {
+                cleanup.enqueue(created);
+            }
+            assertThat(FuzzOracle.check(c, res, null), nullValue());
+        } finally {
+            if (leasedId != null) {
+                fixtures.release(leasedId);
+            }
+        }
+    }
+
+    @Severity(CRITICAL)
+    @ParameterizedTest(name = "{0}")
+    @EnumSource(FuzzTarget.class)
+    @Story("Случайные тела запросов")
+    @EnabledIfSystemProperty(named = "fuzz", matches = "true")
+    void fuzzPayloads(FuzzTarget target) throws IOException, InterruptedException {
+        //PUT с существующим id идет в продукты пула класса; корпус регрессии ждет их освобождения
+        List<Long> existing = new ArrayList<>();
+        for (int i = 0; i < EXISTING_IDS / 2; i++) {
+            existing.add(fixtures.lease());
+        }
+        AtomicInteger next = new AtomicInteger();
+        String seed = property("fuzz.seed");
+        FuzzReport report;
+        try {
+            report = FuzzEngine.builder()
+                    .client(asyncClient)
+                    .target(target)
+                    .grammar(PayloadGrammar.builder()
+                            .validShare(Double.parseDouble(property("fuzz.validShare")))
+                            .maxStringLength(Integer.parseInt(property("fuzz.maxStringLength")))
+                            .existingIds(() -> existing.get(Math.floorMod(next.getAndIncrement(), existing.size())))
+                            .build())
+                    .seed(seed == null || seed.isBlank() ? RandomData.seedFor("fuzz." + target) : Long.parseLong(seed.trim()))
+                    .cases(Long.parseLong(property("fuzz.cases")))
+                    .duration(Duration.ofSeconds(Long.parseLong(property("fuzz.duration"))))
+                    .maxInFlight(Integer.parseInt(property("fuzz.maxInFlight")))
+                    .rate(Double.parseDouble(property("fuzz.rate")))
+                    .shrinkSteps(Integer.parseInt(property("fuzz.shrinkSteps")))
+                    .maxFailures(Integer.parseInt(property("fuzz.maxFailures")))
+                    .createdIds(cleanup::enqueue)
+                    .corpus(Paths.get(property("fuzz.corpus")))
+                    .build()
+                    .run();
+        } finally {
+            existing.forEach(fixtures::release);
+        }
+
+        System.out.println(report);
+        Allure.addAttachment("Fuzz report " + target, "text/plain", report.toString());
+        assertThat(report.getFailures(), empty());
+        assertThat(report.getThroughput(), greaterThanOrEqualTo(Double.parseDouble(property("fuzz.minThroughput"))));
+    }
+}
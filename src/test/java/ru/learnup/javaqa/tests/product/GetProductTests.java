@@ -4,17 +4,16 @@ import io.restassured.response.Response;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import java.io.InputStream;
+import ru.learnup.javaqa.asserts.ProductStreamReport;
 import ru.learnup.javaqa.dto.Product;
-import ru.learnup.javaqa.dto.Products;
 import ru.learnup.javaqa.tests.BaseTest;
 
 import static io.qameta.allure.SeverityLevel.*;
-import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static ru.learnup.javaqa.Endpoints.*;
 import static ru.learnup.javaqa.asserts.CommonAsserts.*;
-import static ru.learnup.javaqa.asserts.IsProductArray.isProductArray;
+import static org.hamcrest.Matchers.greaterThan;
 
 @Epic("Тесты для контроллера продуктов")
 @Feature("GET Product")
@@ -24,44 +23,28 @@ public class GetProductTests extends BaseTest {
 
     @Step("Отправить GET-запрос на контроллер продуктов")
     private Product getProductOK() {
-        return given()
-                .response()
-                .spec(productsResSpec)
-                .when()
-                .get(PRODUCT_ID_ENDPOINT, prod.getId())
-                .prettyPeek()
-                .body()
-                .as(Product.class);
+        return productApi.find(prod.getId());
     }
 
     //Отказ от использования спеков для адекватного логирования: при провале валидации не печатался ответ
     @Step("Отправить GET-запрос на контроллер продуктов")
     private Response getProductErr(Object id) {
-        return given()
-                .when()
-                .get(PRODUCT_ID_ENDPOINT, id)
-                .prettyPeek();
+        return productApi.get(id);
     }
 
+    //Каталог может содержать сотни тысяч продуктов: тело не превращается в Products, а проверяется потоково
     @Step("Отправить GET-запрос в корень контроллера продуктов")
-    private Products getProductAll() {
-        return given()
-                .response()
-                .spec(productsResSpec)
-                .when()
-                .get(PRODUCT_ENDPOINT)
-                .prettyPeek()
-                .body()
-                .as(Products.class);
+    private InputStream getProductAll() {
+        return streamingProductApi.streamAll();
     }
 
     @Severity(CRITICAL)
     @Test
     @Story("Получить все продукты")
     void getAllProducts() {
-        Products res = getProductAll();
+        ProductStreamReport report = assertProductStream(getProductAll());
 
-        assertThat(res.getProducts(), isProductArray());
+        assertThat(report.getCount(), greaterThan(0L));
     }
 
     @Severity(BLOCKER)
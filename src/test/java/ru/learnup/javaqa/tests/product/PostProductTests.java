@@ -1,6 +1,5 @@
 package ru.learnup.javaqa.tests.product;
 
-import com.github.javafaker.Faker;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -8,17 +7,11 @@ import org.junit.jupiter.params.provider.MethodSource;
 import ru.learnup.javaqa.dto.ProductDouble;
 import ru.learnup.javaqa.dto.Product;
 import ru.learnup.javaqa.tests.BaseTest;
-import io.restassured.builder.ResponseSpecBuilder;
-import io.restassured.http.ContentType;
-import io.restassured.specification.ResponseSpecification;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static io.qameta.allure.SeverityLevel.*;
-import static ru.learnup.javaqa.Endpoints.PRODUCT_ENDPOINT;
-import static ru.learnup.javaqa.Endpoints.PRODUCT_ID_ENDPOINT;
-import static io.restassured.RestAssured.given;
 import static ru.learnup.javaqa.asserts.CommonAsserts.*;
 import static ru.learnup.javaqa.enums.CategoryType.*;
 
@@ -26,51 +19,30 @@ import static ru.learnup.javaqa.enums.CategoryType.*;
 @Feature("POST Product")
 @Severity(NORMAL)
 public class PostProductTests extends BaseTest {
-    Faker faker = new Faker();
     Product prod;
     ProductDouble prodDouble;
-    ResponseSpecification postProductResponseSpec;
 
     @Step("Отправить POST-запрос на контроллер продуктов")
     private Product postProductOK() {
-        return given()
-                .body(prod)
-                .contentType(ContentType.JSON)
-                .response()
-                .spec(postProductResponseSpec)
-                .when()
-                .post(PRODUCT_ENDPOINT)
-                .prettyPeek()
-                .body()
-                .as(Product.class);
+        return productApi.create(prod);
     }
 
     //Отказ от использования спеков для адекватного логирования: при провале валидации не печатался ответ
     @Step("Отправить POST-запрос на контроллер продуктов")
     private Response postProductErr() {
-        return given()
-                .body(prod)
-                .contentType(ContentType.JSON)
-                .when()
-                .post(PRODUCT_ENDPOINT)
-                .prettyPeek();
+        return productApi.post(prod);
     }
 
     @Step("Отправить POST-запрос на контроллер продуктов")
     private Response postProductDouble() {
-        return given()
-                .body(prodDouble)
-                .contentType(ContentType.JSON)
-                .when()
-                .post(PRODUCT_ENDPOINT)
-                .prettyPeek();
+        return productApi.post(prodDouble);
     }
 
     @BeforeEach
     void setUp() {
         prod = Product.builder()
                 .price(randomInt())
-                .title(faker.food().ingredient())
+                .title(faker().food().ingredient())
                 .categoryTitle(FOOD.getName())
                 .build();
 
@@ -80,11 +52,6 @@ public class PostProductTests extends BaseTest {
                 .title(prod.getTitle())
                 .categoryTitle(prod.getCategoryTitle())
                 .build();
-
-        postProductResponseSpec = new ResponseSpecBuilder()
-                .expectContentType(ContentType.JSON)
-                .expectStatusCode(201)
-                .build();
     }
 
     @Severity(BLOCKER)
@@ -102,7 +69,7 @@ public class PostProductTests extends BaseTest {
     void postProductElectronic() {
         prod.setPrice(1);
         prod.setCategoryTitle(ELECTRONIC.getName());
-        prod.setTitle(faker.hacker().noun());
+        prod.setTitle(faker().hacker().noun());
 
         Product res = postProductOK();
 
@@ -115,7 +82,7 @@ public class PostProductTests extends BaseTest {
     void postProductFurniture() {
         prod.setPrice(Integer.MAX_VALUE);
         prod.setCategoryTitle(FURNITURE.getName());
-        prod.setTitle(faker.commerce().productName());
+        prod.setTitle(faker().commerce().productName());
 
         Product res = postProductOK();
 
@@ -127,7 +94,7 @@ public class PostProductTests extends BaseTest {
     @Story("Создать продукт в пустой категории")
     void postProductIntoEmptyProductList() {
         prod.setCategoryTitle(F_35.getName());
-        prod.setTitle(faker.aviation().aircraft());
+        prod.setTitle(faker().aviation().aircraft());
 
         Product res = postProductOK();
 
@@ -140,12 +107,7 @@ public class PostProductTests extends BaseTest {
     void postProductEmptyJson() {
         ProductDouble empty = new ProductDouble();
 
-        Response res = given()
-                .body(empty)
-                .contentType(ContentType.JSON)
-                .when()
-                .post(PRODUCT_ENDPOINT)
-                .prettyPeek();
+        Response res = productApi.post(empty);
 
         assertProductBadRequest(prod, res);
     }
@@ -1078,18 +1040,7 @@ public class PostProductTests extends BaseTest {
 
     @AfterEach
     void tearDown() {
-        //Если ассерт не вернул ид продукта
-        if (prod.getId() != null) {
-            //Удаление
-            given()
-                    .when()
-                    .delete(PRODUCT_ID_ENDPOINT, prod.getId())
-                    .prettyPeek();
-            //Проверка удаления
-            given()
-                    .when()
-                    .get(PRODUCT_ID_ENDPOINT, prod.getId())
-                    .prettyPeek();
-        }
+        //Удаление в фоне; если ассерт не вернул ид продукта, удалять нечего
+        cleanup.enqueue(prod.getId());
     }
 }
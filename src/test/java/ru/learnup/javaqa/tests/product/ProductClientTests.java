@@ -0,0 +1,163 @@
+package ru.learnup.javaqa.tests.product;
+
+import io.qameta.allure.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import ru.learnup.javaqa.client.ApiResponse;
+import ru.learnup.javaqa.client.MarketClient;
+import ru.learnup.javaqa.dto.Category;
+import ru.learnup.javaqa.dto.Product;
+import ru.learnup.javaqa.tests.BaseTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static ru.learnup.javaqa.asserts.CommonAsserts.*;
+import static ru.learnup.javaqa.enums.CategoryType.*;
+
+//Одни и те же сценарии через обе реализации MarketClient; запросы отправляются пачкой,
+//ответы ждутся все сразу - для асинхронного клиента это одновременные запросы из одного потока
+@Epic("Тесты для контроллера продуктов")
+@Feature("Product client")
+@Severity(NORMAL)
+public class ProductClientTests extends BaseTest {
+    private static final int PIPELINED = 50;
+    private final List<Long> created = new ArrayList<>();
+
+    static Stream<MarketClient> clients() {
+        return Stream.of(restAssuredClient, asyncClient);
+    }
+
+    @Step("Создать {count} продуктов одновременно")
+    private List<Product> createAll(MarketClient client, int count) {
+        List<Product> expected = new ArrayList<>(count);
+        List<CompletableFuture<Product>> posted = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product p = Product.builder()
+                    .title("client-" + i)
+                    .price(randomInt())
+                    .categoryTitle(ELECTRONIC.getName())
+                    .build();
+            expected.add(p);
+            posted.add(client.createProductOK(p));
+        }
+        //Сначала дожидаются все запросы: продукты, созданные после первой ошибки, тоже должны попасть в created
+        List<Product> actual = new ArrayList<>(count);
+        RuntimeException failure = null;
+        for (CompletableFuture<Product> f : posted) {
+            try {
+                Product res = f.join();
+                created.add(res.getId());
+                actual.add(res);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        for (int i = 0; i < count; i++) {
+            assertProductEquals(expected.get(i), actual.get(i));
+        }
+        return expected;
+    }
+
+    private static List<ApiResponse> joinAll(List<CompletableFuture<ApiResponse>> futures) {
+        List<ApiResponse> responses = new ArrayList<>(futures.size());
+        futures.forEach(f -> responses.add(f.join()));
+        return responses;
+    }
+
+    //В фоне удаляются продукты, до собственного DELETE которых тест не дошел
+    @AfterEach
+    void tearDown() {
+        created.forEach(cleanup::enqueue);
+    }
+
+    @Severity(CRITICAL)
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("clients")
+    @Story("Создать, получить и удалить продукты одновременными запросами")
+    void pipelinedLifecycle(MarketClient client) {
+        List<Product> products = createAll(client, PIPELINED);
+
+        List<CompletableFuture<ApiResponse>> got = new ArrayList<>();
+        products.forEach(p -> got.add(client.getProduct(p.getId())));
+        List<ApiResponse> found = joinAll(got);
+        for (int i = 0; i < products.size(); i++) {
+            assertThat(found.get(i).getStatusCode(), equalTo(200));
+            assertThat(found.get(i).as(Product.class), equalTo(products.get(i)));
+        }
+
+        List<CompletableFuture<ApiResponse>> deleted = new ArrayList<>();
+        products.forEach(p -> deleted.add(client.deleteProduct(p.getId())));
+        List<ApiResponse> deletedRes = joinAll(deleted);
+        //Удаленные тестом продукты не отправляются в cleanup: лишний DELETE на стенд вернул бы 404
+        for (int i = 0; i < products.size(); i++) {
+            if (deletedRes.get(i).getStatusCode() == 200) {
+                created.remove(products.get(i).getId());
+            }
+        }
+        deletedRes.forEach(res -> assertThat(res.getStatusCode(), equalTo(200)));
+
+        List<CompletableFuture<ApiResponse>> gone = new ArrayList<>();
+        products.forEach(p -> gone.add(client.getProduct(p.getId())));
+        joinAll(gone).forEach(res -> assertNotFound(res));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("clients")
+    @Story("Получить категорию 1")
+    void getCategory(MarketClient client) {
+        ApiResponse res = client.getCategory(FOOD.getId()).join();
+
+        assertThat(res.getStatusCode(), equalTo(200));
+        assertCategoryEquals(FOOD, res.as(Category.class));
+    }
+
+    @Severity(MINOR)
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("clients")
+    @Story("Получить продукт c отрицательным идентификатором")
+    void getProductNegative(MarketClient client) {
+        ApiResponse res = client.getProduct(-1).join();
+
+        assertBadRequest(res);
+    }
+
+    @Severity(MINOR)
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("clients")
+    @Story("Получить продукт из пробела")
+    void getProductSpace(MarketClient client) {
+        ApiResponse res = client.getProduct(" ").join();
+
+        assertBadRequest(res);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("clients")
+    @Story("Обновить несуществующий продукт")
+    void putProductIntoNonexistent(MarketClient client) {
+        Product p = Product.builder()
+                .id(Long.MAX_VALUE)
+                .title("client-missing")
+                .price(1)
+                .categoryTitle(FOOD.getName())
+                .build();
+
+        ApiResponse res = client.updateProduct(p).join();
+
+        assertBadRequest(res);
+    }
+}
@@ -1,24 +1,20 @@
 package ru.learnup.javaqa.tests.product;
 
-import com.github.javafaker.Faker;
 import io.qameta.allure.*;
-import io.restassured.builder.ResponseSpecBuilder;
-import io.restassured.http.ContentType;
 import io.restassured.response.Response;
-import io.restassured.specification.ResponseSpecification;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import ru.learnup.javaqa.dto.ProductDouble;
 import ru.learnup.javaqa.dto.Product;
+import ru.learnup.javaqa.fixtures.ProductFixturePool;
 import ru.learnup.javaqa.tests.BaseTest;
 
 import static io.qameta.allure.SeverityLevel.*;
-import static io.restassured.RestAssured.given;
-import static ru.learnup.javaqa.Endpoints.PRODUCT_ENDPOINT;
-import static ru.learnup.javaqa.Endpoints.PRODUCT_ID_ENDPOINT;
 import static ru.learnup.javaqa.asserts.CommonAsserts.*;
 import static ru.learnup.javaqa.enums.CategoryType.*;
 
@@ -26,63 +22,43 @@ import static ru.learnup.javaqa.enums.CategoryType.*;
 @Feature("PUT Product")
 @Severity(NORMAL)
 public class PutProductTests extends BaseTest {
-    Faker faker = new Faker();
     Product prod;
     ProductDouble prodDouble;
-    ResponseSpecification postProductResponseSpec;
-
-    @Step("Отправить POST-запрос на контроллер продуктов")
-    private Product postProductOK() {
-        return given()
-                .body(prod)
-                .contentType(ContentType.JSON)
-                .response()
-                .spec(postProductResponseSpec)
-                .when()
-                .post(PRODUCT_ENDPOINT)
-                .prettyPeek()
-                .body()
-                .as(Product.class);
+    //Продукты для обновления создаются один раз на класс и переиспользуются тестами
+    static ProductFixturePool fixtures;
+    Long leasedId;
+
+    @BeforeAll
+    static void createFixtures() {
+        fixtures = productFixtures(Integer.parseInt(property("fixtures.size")));
+    }
+
+    @AfterAll
+    static void deleteFixtures() {
+        fixtures.close();
     }
 
     @Step("Отправить PUT-запрос на контроллер продуктов")
     private Product putProductOK() {
-        return given()
-                .body(prod)
-                .contentType(ContentType.JSON)
-                .when()
-                .put(PRODUCT_ENDPOINT)
-                .prettyPeek()
-                .body()
-                .as(Product.class);
+        return productApi.update(prod);
     }
 
     //Отказ от использования спеков для адекватного логирования: при провале валидации не печатался ответ
     @Step("Отправить PUT-запрос на контроллер продуктов")
     private Response putProductErr() {
-        return given()
-                .body(prod)
-                .contentType(ContentType.JSON)
-                .when()
-                .put(PRODUCT_ENDPOINT)
-                .prettyPeek();
+        return productApi.put(prod);
     }
 
     @Step("Отправить PUT-запрос на контроллер продуктов")
     private Response putProductDouble() {
-        return given()
-                .body(prodDouble)
-                .contentType(ContentType.JSON)
-                .when()
-                .put(PRODUCT_ENDPOINT)
-                .prettyPeek();
+        return productApi.put(prodDouble);
     }
 
     @BeforeEach
     void setUp() {
         prod = Product.builder()
                 .price(randomInt())
-                .title(faker.food().ingredient())
+                .title(faker().food().ingredient())
                 .categoryTitle(FOOD.getName())
                 .build();
 
@@ -92,14 +68,8 @@ public class PutProductTests extends BaseTest {
                 .categoryTitle(prod.getCategoryTitle())
                 .build();
 
-        postProductResponseSpec = new ResponseSpecBuilder()
-                .expectContentType(ContentType.JSON)
-                .expectStatusCode(201)
-                .build();
-
-        Product p = postProductOK();
-
-        prod.setId(p.getId());
+        leasedId = fixtures.lease();
+        prod.setId(leasedId);
         prodDouble.setId(prod.getId());
     }
 
@@ -129,7 +99,7 @@ public class PutProductTests extends BaseTest {
     void putProductAll() {
         prod.setPrice(1);
         prod.setCategoryTitle(ELECTRONIC.getName());
-        prod.setTitle(faker.hacker().noun());
+        prod.setTitle(faker().hacker().noun());
 
         Product res = putProductOK();
 
@@ -142,7 +112,7 @@ public class PutProductTests extends BaseTest {
     void putProductAll2() {
         prod.setPrice(randomInt());
         prod.setCategoryTitle(MIG_21.getName());
-        prod.setTitle(faker.aviation().aircraft());
+        prod.setTitle(faker().aviation().aircraft());
 
         Product res = putProductOK();
 
@@ -155,7 +125,7 @@ public class PutProductTests extends BaseTest {
     void putProductAll3() {
         prod.setPrice(Integer.MAX_VALUE);
         prod.setCategoryTitle(FURNITURE.getName());
-        prod.setTitle(faker.commerce().productName());
+        prod.setTitle(faker().commerce().productName());
 
         Product res = putProductOK();
 
@@ -167,7 +137,7 @@ public class PutProductTests extends BaseTest {
     @Story("Обновить продукт категорией, не имеющей товаров")
     void putProductIntoEmptyProductList() {
         prod.setCategoryTitle(F_35.getName());
-        prod.setTitle(faker.aviation().aircraft());
+        prod.setTitle(faker().aviation().aircraft());
 
         Product res = putProductOK();
 
@@ -180,12 +150,7 @@ public class PutProductTests extends BaseTest {
     void putProductEmptyJson() {
         ProductDouble empty = new ProductDouble();
 
-        Response res = given()
-                .body(empty)
-                .contentType(ContentType.JSON)
-                .when()
-                .put(PRODUCT_ENDPOINT)
-                .prettyPeek();
+        Response res = productApi.put(empty);
 
         assertProductBadRequest(prod, res);
     }
@@ -1103,18 +1068,13 @@ public class PutProductTests extends BaseTest {
     
     @AfterEach
     void tearDown() {
-        //Если ассерт не вернул ид продукта
-        if (prod.getId() != null) {
-            //Удаление
-            given()
-                    .when()
-                    .delete(PRODUCT_ID_ENDPOINT, prod.getId())
-                    .prettyPeek();
-            //Проверка удаления
-            given()
-                    .when()
-                    .get(PRODUCT_ID_ENDPOINT, prod.getId())
-                    .prettyPeek();
+        //Без продукта из пула (истекло ожидание в lease) возвращать нечего: NPE скрыл бы настоящую ошибку
+        if (leasedId != null) {
+            fixtures.release(leasedId);
+        }
+        //Если ассерт вернул ид другого продукта, он тоже удаляется вместе с пулом
+        if (prod.getId() != null && !prod.getId().equals(leasedId)) {
+            fixtures.discard(prod.getId());
         }
     }
 }